@@ -18,8 +18,11 @@ public class CardScannerTester extends CardScanner {
     private static final long FRAME_INTERVAL = (long) (1000.0 / 30);
 
     private static String sCardAssetName;
+    private static boolean sFeedFrames = true;
 
     private boolean mScanAllowed;
+    private boolean mInterceptResults;
+    private DetectionInfo mInterceptedResult;
     private Handler mHandler;
     private byte[] mFrame;
 
@@ -27,6 +30,37 @@ public class CardScannerTester extends CardScanner {
         sCardAssetName = cardAssetName;
     }
 
+    /**
+     * When set to <code>false</code>, the test frame is not fed to the scanner automatically and
+     * has to be scanned with {@link #scanFrame(byte[], DetectionInfo)}.
+     */
+    public static void setFeedFrames(boolean feedFrames) {
+        sFeedFrames = feedFrames;
+    }
+
+    byte[] getFrame() {
+        return mFrame;
+    }
+
+    /**
+     * When set, cards detected by {@link #onPreviewFrame(byte[], android.hardware.Camera)} are kept
+     * for {@link #takeInterceptedResult()} instead of being reported to the activity, so scanning
+     * continues.
+     */
+    void setInterceptResults(boolean interceptResults) {
+        mInterceptResults = interceptResults;
+        mInterceptedResult = null;
+    }
+
+    /**
+     * @return the card detected since the last call, or null.
+     */
+    DetectionInfo takeInterceptedResult() {
+        DetectionInfo result = mInterceptedResult;
+        mInterceptedResult = null;
+        return result;
+    }
+
     public CardScannerTester(CardIOActivity scanActivity, int currentFrameOrientation) {
         super(scanActivity, currentFrameOrientation);
         useCamera = false;
@@ -54,10 +88,19 @@ public class CardScannerTester extends CardScanner {
         }
     };
 
+    @Override
+    void onCardDetected(DetectionInfo dInfo) {
+        if (mInterceptResults) {
+            mInterceptedResult = dInfo;
+        } else {
+            super.onCardDetected(dInfo);
+        }
+    }
+
     @Override
     boolean resumeScanning(SurfaceHolder holder) {
         boolean result = super.resumeScanning(holder);
-        mScanAllowed = true;
+        mScanAllowed = sFeedFrames;
         mHandler.postDelayed(mFrameRunnable, FRAME_INTERVAL);
         return result;
     }
@@ -79,7 +122,10 @@ public class CardScannerTester extends CardScanner {
         return yuv;
     }
 
-    private void encodeYUV420SP(byte[] yuv420sp, int[] argb, int width, int height) {
+    /**
+     * Converts ARGB pixels to an NV21 frame, as delivered by the camera.
+     */
+    static void encodeYUV420SP(byte[] yuv420sp, int[] argb, int width, int height) {
         int frameSize = width * height;
         int yIndex = 0;
         int uvIndex = frameSize;
@@ -0,0 +1,137 @@
+package io.card.payment;
+
+/* LumaOnlyBenchmark.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.Manifest;
+import android.app.Instrumentation;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+import io.card.test.CardIOTestActivity;
+import io.card.test.CustomActivityTestRule;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static com.lukekorth.deviceautomator.DeviceAutomator.onDevice;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares edge detection and per-frame cost of the luma-only scanning mode against the regular
+ * color path, on the same test frame. Timings are logged under {@link #TAG}, only the detection
+ * rate is asserted.
+ */
+public class LumaOnlyBenchmark {
+
+    private static final String TAG = "LumaOnlyBenchmark";
+
+    private static final int WARMUP_FRAMES = 10;
+    private static final int MEASURED_FRAMES = 100;
+
+    @Rule
+    public final CustomActivityTestRule<CardIOTestActivity> mActivityTestRule =
+            new CustomActivityTestRule<>(CardIOTestActivity.class, false, false);
+
+    private static class Result {
+        int frames;
+        int detected;
+        long totalNanos;
+
+        double detectionRate() {
+            return frames == 0 ? 0 : (double) detected / frames;
+        }
+
+        double averageMillis() {
+            return frames == 0 ? 0 : totalNanos / 1e6 / frames;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        CardScannerTester.setFeedFrames(true);
+    }
+
+    @Test(timeout = 60000)
+    public void lumaOnlyDetectsEdgesLikeColor() {
+        CardScannerTester.setCardAsset("amex.png");
+        CardScannerTester.setFeedFrames(false);
+
+        Instrumentation.ActivityMonitor monitor = getInstrumentation()
+                .addMonitor(CardIOActivity.class.getName(), null, false);
+        mActivityTestRule.launchActivity(null);
+        onDevice().acceptRuntimePermission(Manifest.permission.CAMERA);
+        CardIOActivity activity =
+                (CardIOActivity) getInstrumentation().waitForMonitorWithTimeout(monitor, 10000);
+        assertNotNull("CardIOActivity did not start", activity);
+        getInstrumentation().waitForIdleSync();
+
+        final CardScannerTester scanner = getScanner(activity);
+        final Result[] results = new Result[2];
+        // frames are scanned on the main thread in production as well
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                boolean lumaOnly = scanner.isLumaOnly();
+                results[0] = measure(scanner, false);
+                results[1] = measure(scanner, true);
+                scanner.setLumaOnly(lumaOnly);
+            }
+        });
+        Result color = results[0];
+        Result luma = results[1];
+
+        Log.i(TAG, String.format("color: %d/%d frames detected, %.2f ms/frame",
+                color.detected, color.frames, color.averageMillis()));
+        Log.i(TAG, String.format("luma-only: %d/%d frames detected, %.2f ms/frame",
+                luma.detected, luma.frames, luma.averageMillis()));
+
+        assertTrue("color path detected no card", color.detected > 0);
+        assertTrue("luma-only detection rate " + luma.detectionRate()
+                        + " is well below color detection rate " + color.detectionRate(),
+                luma.detectionRate() >= color.detectionRate() * 0.9);
+    }
+
+    private static Result measure(CardScannerTester scanner, boolean lumaOnly) {
+        scanner.setLumaOnly(lumaOnly);
+        byte[] frame = scanner.getFrame();
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            scanner.scanFrame(frame, new DetectionInfo());
+        }
+
+        Result result = new Result();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            DetectionInfo dInfo = new DetectionInfo();
+            long start = System.nanoTime();
+            scanner.scanFrame(frame, dInfo);
+            long elapsed = System.nanoTime() - start;
+
+            if (dInfo.predicted()) {
+                // a pipelined recognition result was reported instead of running edge detection
+                continue;
+            }
+            result.frames++;
+            result.totalNanos += elapsed;
+            if (dInfo.detected()) {
+                result.detected++;
+            }
+        }
+        return result;
+    }
+
+    private static CardScannerTester getScanner(CardIOActivity activity) {
+        try {
+            Field scannerField = CardIOActivity.class.getDeclaredField("mCardScanner");
+            scannerField.setAccessible(true);
+            return (CardScannerTester) scannerField.get(activity);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package io.card.payment;
+
+/* ReplayBenchmark.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.Manifest;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.card.payment.ScanSessionMetrics.FrameOutcome;
+import io.card.payment.ScanSessionMetrics.Stage;
+import io.card.test.CardIOTestActivity;
+import io.card.test.CustomActivityTestRule;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static com.lukekorth.deviceautomator.DeviceAutomator.onDevice;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Replays recorded scan sessions (see {@link CardIOActivity#EXTRA_RECORD_SESSION}) through the full
+ * {@link CardScanner#onPreviewFrame(byte[], android.hardware.Camera)} path, once as fast as
+ * possible and once at the pace the frames were recorded, each with and without luma-only mode.
+ * <p/>
+ * Sessions are read from the <code>replay_sessions</code> test assets and from the directory given
+ * by the <code>replayCorpus</code> instrumentation argument, which defaults to the session
+ * recordings and the {@link SyntheticFrameGenerator} sessions of the sample app. A file
+ * <code>&lt;session&gt;.label</code> next to a session holds the card number it shows; unlabeled
+ * sessions only count towards timings.
+ * <p/>
+ * The report is logged under {@link #TAG} and written as JSON to
+ * <code>replay-benchmark.json</code> in the sample app's external files directory, for CI to pull
+ * and compare against a baseline. It holds the accuracy of each corpus. Only misread card numbers
+ * in the test assets fail the test: the other corpora, synthetic ones in particular, can be made
+ * as harsh as wanted. Set the <code>replayMaxWrongPercent</code> instrumentation argument to also
+ * fail when more than that share of the labeled results of any corpus is misread.
+ * <p/>
+ * Each result has two sets of frame counts. <code>framesDelivered</code>, split into
+ * <code>framesReplayed</code> and <code>framesDropped</code>, counts the recorded frames up to the
+ * result and is authoritative for how many frames a session took. <code>frameOutcomes</code> comes
+ * from {@link ScanSessionMetrics} and only covers the replayed frames, as frames dropped while the
+ * scanner was busy never reach it; in real-time pacing its <code>SKIPPED_BUSY</code> doesn't
+ * include them.
+ * <p/>
+ * Each result also counts the frames rejected by the native fast card presence test, and of those
+ * that still went through edge detection, how many had edges found: false rejections. Normally only
+ * every few consecutive rejected frames are checked; with the <code>presenceAudit</code>
+ * instrumentation argument set to <code>true</code> all of them are, at the cost of the time the
+ * test saves, so timings from such a run don't compare to the baseline.
+ */
+public class ReplayBenchmark {
+
+    private static final String TAG = "ReplayBenchmark";
+
+    private static final String ASSET_DIR = "replay_sessions";
+    private static final String ARG_CORPUS_DIR = "replayCorpus";
+    private static final String ARG_PRESENCE_AUDIT = "presenceAudit";
+    private static final String ARG_MAX_WRONG_PERCENT = "replayMaxWrongPercent";
+    private static final String SESSION_SUFFIX = ".cior";
+    private static final String LABEL_SUFFIX = ".label";
+    private static final String REPORT_FILE = "replay-benchmark.json";
+
+    private enum Pacing {
+        /**
+         * Every frame is scanned, back to back. Time to result is the time spent scanning.
+         */
+        FAST,
+        /**
+         * Frames are delivered at their recorded times. Like the camera with its single preview
+         * buffer, frames that arrive while the scanner is busy are dropped. They are counted by
+         * the benchmark, the scanner never sees them. Time to result is the recorded time from the
+         * first frame until the scanner is done with the frame that completed the scan.
+         */
+        REAL_TIME,
+    }
+
+    private static class Config {
+        final Pacing pacing;
+        final boolean lumaOnly;
+
+        Config(Pacing pacing, boolean lumaOnly) {
+            this.pacing = pacing;
+            this.lumaOnly = lumaOnly;
+        }
+
+        String name() {
+            return pacing.name().toLowerCase() + (lumaOnly ? "-luma" : "-color");
+        }
+    }
+
+    private static final Config[] CONFIGS = {
+            new Config(Pacing.FAST, false),
+            new Config(Pacing.FAST, true),
+            new Config(Pacing.REAL_TIME, false),
+            new Config(Pacing.REAL_TIME, true),
+    };
+
+    // the corpora sessions are read from; only misreads in the test assets always fail the test
+    private static final String CORPUS_ASSETS = "assets";
+    private static final String CORPUS_RECORDINGS = "recordings";
+    private static final String CORPUS_SYNTHETIC = "synthetic";
+    private static final String CORPUS_ARGUMENT = "replayCorpus";
+
+    // indices into ACCURACIES
+    private static final int CORRECT = 0;
+    private static final int WRONG = 1;
+    private static final int MISSED = 2;
+    private static final int UNLABELED = 3;
+    private static final String[] ACCURACIES = {"correct", "wrong", "missed", "unlabeled"};
+
+    private static class Session {
+        final String name;
+        final String corpus;
+        final File file;
+        final String asset;
+        final String expectedNumber;
+
+        Session(String name, String corpus, File file, String asset, String expectedNumber) {
+            this.name = name;
+            this.corpus = corpus;
+            this.file = file;
+            this.asset = asset;
+            this.expectedNumber = expectedNumber;
+        }
+
+        RecordedSession open() throws IOException {
+            if (file != null) {
+                return new RecordedSession(file);
+            }
+            return new RecordedSession(getInstrumentation().getContext().getAssets().open(asset));
+        }
+    }
+
+    private static class Result {
+        final Session session;
+        final Config config;
+        int framesReplayed;
+        int framesDropped;
+        int framesToResult = -1;
+        double timeToResultMillis = -1;
+        long[] frameNanos = new long[64];
+        String scannedNumber;
+        ScanSessionMetrics metrics;
+        int[] presenceStats;
+
+        Result(Session session, Config config) {
+            this.session = session;
+            this.config = config;
+        }
+
+        void addFrame(long nanos) {
+            if (framesReplayed == frameNanos.length) {
+                frameNanos = Arrays.copyOf(frameNanos, frameNanos.length * 2);
+            }
+            frameNanos[framesReplayed++] = nanos;
+        }
+
+        String accuracy() {
+            if (session.expectedNumber == null) {
+                return ACCURACIES[UNLABELED];
+            } else if (scannedNumber == null) {
+                return ACCURACIES[MISSED];
+            }
+            return ACCURACIES[session.expectedNumber.equals(scannedNumber) ? CORRECT : WRONG];
+        }
+
+        JSONObject toJson() throws JSONException {
+            long[] sorted = Arrays.copyOf(frameNanos, framesReplayed);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long nanos : sorted) {
+                total += nanos;
+            }
+
+            JSONObject json = new JSONObject()
+                    .put("session", session.name)
+                    .put("corpus", session.corpus)
+                    .put("config", config.name())
+                    .put("framesDelivered", framesReplayed + framesDropped)
+                    .put("framesReplayed", framesReplayed)
+                    .put("framesDropped", framesDropped)
+                    .put("framesToResult", framesToResult)
+                    .put("timeToResultMs", timeToResultMillis)
+                    .put("frameMeanMs", framesReplayed == 0 ? 0 : total / 1e6 / framesReplayed)
+                    .put("frameP50Ms", percentileMillis(sorted, 50))
+                    .put("frameP90Ms", percentileMillis(sorted, 90))
+                    .put("frameMaxMs", percentileMillis(sorted, 100))
+                    .put("recognitionP50Ms", metrics.getLatencyPercentile(Stage.RECOGNITION, 50))
+                    .put("recognitionP90Ms", metrics.getLatencyPercentile(Stage.RECOGNITION, 90))
+                    .put("accuracy", accuracy());
+            JSONObject outcomes = new JSONObject();
+            for (FrameOutcome outcome : FrameOutcome.values()) {
+                outcomes.put(outcome.name(), metrics.getFrameCount(outcome));
+            }
+            json.put("frameOutcomes", outcomes);
+            return json.put("presenceGate", new JSONObject()
+                    .put("rejected", presenceStats[0])
+                    .put("rechecked", presenceStats[1])
+                    .put("recheckedWithEdges", presenceStats[2]));
+        }
+
+        private static double percentileMillis(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int rank = Math.max(1, (sorted.length * percentile + 99) / 100);
+            return sorted[rank - 1] / 1e6;
+        }
+    }
+
+    @Rule
+    public final CustomActivityTestRule<CardIOTestActivity> mActivityTestRule =
+            new CustomActivityTestRule<>(CardIOTestActivity.class, false, false);
+
+    @After
+    public void tearDown() {
+        CardScannerTester.setFeedFrames(true);
+    }
+
+    @Test
+    public void replayRecordedSessions() throws Exception {
+        final List<Session> sessions = findSessions();
+        assumeTrue("no recorded sessions to replay", !sessions.isEmpty());
+
+        CardScannerTester.setCardAsset("amex.png");
+        CardScannerTester.setFeedFrames(false);
+
+        Instrumentation.ActivityMonitor monitor = getInstrumentation()
+                .addMonitor(CardIOActivity.class.getName(), null, false);
+        mActivityTestRule.launchActivity(null);
+        onDevice().acceptRuntimePermission(Manifest.permission.CAMERA);
+        CardIOActivity activity =
+                (CardIOActivity) getInstrumentation().waitForMonitorWithTimeout(monitor, 10000);
+        assertNotNull("CardIOActivity did not start", activity);
+        getInstrumentation().waitForIdleSync();
+
+        final CardScannerTester scanner = getScanner(activity);
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        final boolean presenceAudit = arguments != null
+                && Boolean.parseBoolean(arguments.getString(ARG_PRESENCE_AUDIT));
+        final List<Result> results = new ArrayList<>();
+        final IOException[] error = new IOException[1];
+        // frames are scanned on the main thread in production as well
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                boolean lumaOnly = scanner.isLumaOnly();
+                scanner.setInterceptResults(true);
+                scanner.setPresenceAudit(presenceAudit);
+                try {
+                    for (Session session : sessions) {
+                        for (Config config : CONFIGS) {
+                            results.add(replay(scanner, session, config));
+                        }
+                    }
+                } catch (IOException e) {
+                    error[0] = e;
+                } finally {
+                    scanner.setInterceptResults(false);
+                    scanner.setPresenceAudit(false);
+                    scanner.setLumaOnly(lumaOnly);
+                    scanner.restartSession();
+                }
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+
+        // per corpus, the number of results with each of ACCURACIES
+        Map<String, int[]> accuracies = new LinkedHashMap<>();
+        JSONArray json = new JSONArray();
+        for (Result result : results) {
+            JSONObject resultJson = result.toJson();
+            Log.i(TAG, resultJson.toString());
+            json.put(resultJson);
+
+            int[] counts = accuracies.get(result.session.corpus);
+            if (counts == null) {
+                counts = new int[ACCURACIES.length];
+                accuracies.put(result.session.corpus, counts);
+            }
+            counts[Arrays.asList(ACCURACIES).indexOf(result.accuracy())]++;
+        }
+        JSONObject corpora = new JSONObject();
+        for (Map.Entry<String, int[]> entry : accuracies.entrySet()) {
+            JSONObject corpusJson = corpusToJson(entry.getValue());
+            Log.i(TAG, entry.getKey() + ": " + corpusJson);
+            corpora.put(entry.getKey(), corpusJson);
+        }
+        writeReport(new JSONObject()
+                .put("device", Build.MANUFACTURER + " " + Build.MODEL)
+                .put("sdk", Build.VERSION.SDK_INT)
+                .put("presenceAudit", presenceAudit)
+                .put("corpora", corpora)
+                .put("results", json));
+
+        int[] assetAccuracies = accuracies.get(CORPUS_ASSETS);
+        if (assetAccuracies != null) {
+            assertEquals("misread card numbers in " + ASSET_DIR, 0, assetAccuracies[WRONG]);
+        }
+        String maxWrongPercent = arguments == null
+                ? null : arguments.getString(ARG_MAX_WRONG_PERCENT);
+        if (maxWrongPercent != null) {
+            double limit = Double.parseDouble(maxWrongPercent);
+            for (Map.Entry<String, int[]> entry : accuracies.entrySet()) {
+                int[] counts = entry.getValue();
+                int labeled = counts[CORRECT] + counts[WRONG] + counts[MISSED];
+                assertTrue("misread card numbers in " + entry.getKey() + ": " + counts[WRONG]
+                        + " of " + labeled, counts[WRONG] * 100.0 <= limit * labeled);
+            }
+        }
+    }
+
+    private static JSONObject corpusToJson(int[] counts) throws JSONException {
+        JSONObject json = new JSONObject();
+        for (int i = 0; i < ACCURACIES.length; i++) {
+            json.put(ACCURACIES[i], counts[i]);
+        }
+        int labeled = counts[CORRECT] + counts[WRONG] + counts[MISSED];
+        return json.put("accuracy", labeled == 0 ? -1 : (double) counts[CORRECT] / labeled);
+    }
+
+    private static Result replay(CardScannerTester scanner, Session session, Config config)
+            throws IOException {
+        scanner.setLumaOnly(config.lumaOnly);
+        scanner.restartSession();
+
+        Result result = new Result(session, config);
+        RecordedSession recording = session.open();
+        try {
+            if (recording.getWidth() != scanner.mPreviewWidth
+                    || recording.getHeight() != scanner.mPreviewHeight) {
+                throw new IOException(session.name + " was recorded at " + recording.getWidth()
+                        + "x" + recording.getHeight());
+            }
+
+            // Frames are decoded before the clock is read, so decoding never counts as the scanner
+            // being busy. In real-time pacing, a frame is dropped if it was recorded before the
+            // scanner finished the last frame, measured on the recording's timeline from the first
+            // frame on.
+            RecordedSession.Frame frame = new RecordedSession.Frame();
+            boolean firstFrame = true;
+            long firstTimestamp = 0;
+            long wallStart = 0;
+            long busyUntil = 0;
+            long scanningNanos = 0;
+            while (result.framesToResult < 0 && recording.nextFrame(frame)) {
+                if (firstFrame) {
+                    firstTimestamp = frame.timestampNanos;
+                    wallStart = System.nanoTime();
+                    firstFrame = false;
+                }
+                long timestamp = frame.timestampNanos - firstTimestamp;
+                if (config.pacing == Pacing.REAL_TIME) {
+                    if (timestamp < busyUntil) {
+                        result.framesDropped++;
+                        continue;
+                    }
+                    long wait = timestamp - (System.nanoTime() - wallStart);
+                    if (wait > 0) {
+                        SystemClock.sleep(wait / 1000000);
+                    }
+                }
+
+                scanner.setDeviceOrientation(frame.orientation);
+                long frameStart = System.nanoTime();
+                scanner.onPreviewFrame(frame.data, null);
+                long frameNanos = System.nanoTime() - frameStart;
+                scanningNanos += frameNanos;
+                busyUntil = timestamp + frameNanos;
+                result.addFrame(frameNanos);
+
+                DetectionInfo detected = scanner.takeInterceptedResult();
+                if (detected != null) {
+                    result.framesToResult = result.framesReplayed;
+                    long timeToResult = config.pacing == Pacing.FAST ? scanningNanos : busyUntil;
+                    result.timeToResultMillis = timeToResult / 1e6;
+                    result.scannedNumber = detected.creditCard().cardNumber;
+                }
+            }
+        } finally {
+            recording.close();
+        }
+        result.metrics = scanner.getSessionMetrics();
+        result.presenceStats = scanner.getPresenceStats();
+        return result;
+    }
+
+    private static List<Session> findSessions() throws IOException {
+        List<Session> sessions = new ArrayList<>();
+
+        AssetManager assets = getInstrumentation().getContext().getAssets();
+        String[] assetNames = assets.list(ASSET_DIR);
+        if (assetNames != null) {
+            Arrays.sort(assetNames);
+            List<String> names = Arrays.asList(assetNames);
+            for (String name : assetNames) {
+                if (name.endsWith(SESSION_SUFFIX)) {
+                    String label = null;
+                    if (names.contains(name + LABEL_SUFFIX)) {
+                        label = readLabel(assets.open(ASSET_DIR + "/" + name + LABEL_SUFFIX));
+                    }
+                    sessions.add(new Session(name, CORPUS_ASSETS, null, ASSET_DIR + "/" + name,
+                            label));
+                }
+            }
+        }
+
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String corpus = arguments == null ? null : arguments.getString(ARG_CORPUS_DIR);
+        if (corpus != null) {
+            addSessions(sessions, CORPUS_ARGUMENT, new File(corpus));
+        } else {
+            File filesDir = getInstrumentation().getTargetContext().getFilesDir();
+            addSessions(sessions, CORPUS_RECORDINGS,
+                    new File(filesDir, CardScanner.SESSION_RECORDINGS_DIR));
+            addSessions(sessions, CORPUS_SYNTHETIC,
+                    new File(filesDir, SyntheticFrameGenerator.SESSIONS_DIR));
+        }
+        return sessions;
+    }
+
+    private static void addSessions(List<Session> sessions, String corpus, File dir)
+            throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.getName().endsWith(SESSION_SUFFIX)) {
+                File labelFile = new File(file.getPath() + LABEL_SUFFIX);
+                String label = labelFile.isFile()
+                        ? readLabel(new FileInputStream(labelFile)) : null;
+                sessions.add(new Session(file.getName(), corpus, file, null, label));
+            }
+        }
+    }
+
+    private static String readLabel(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        try {
+            String line = reader.readLine();
+            return line == null ? null : line.replaceAll("[^0-9]", "");
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void writeReport(JSONObject report) throws IOException, JSONException {
+        Context context = getInstrumentation().getTargetContext();
+        File dir = context.getExternalFilesDir(null);
+        if (dir == null) {
+            dir = context.getFilesDir();
+        }
+        File file = new File(dir, REPORT_FILE);
+        Writer out = new FileWriter(file);
+        try {
+            out.write(report.toString(2));
+        } finally {
+            out.close();
+        }
+        Log.i(TAG, "report written to " + file);
+    }
+
+    private static CardScannerTester getScanner(CardIOActivity activity) {
+        try {
+            Field scannerField = CardIOActivity.class.getDeclaredField("mCardScanner");
+            scannerField.setAccessible(true);
+            return (CardScannerTester) scannerField.get(activity);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
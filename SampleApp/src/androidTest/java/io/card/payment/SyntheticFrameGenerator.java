@@ -0,0 +1,497 @@
+package io.card.payment;
+
+/* SyntheticFrameGenerator.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ImageFormat;
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.Typeface;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+import io.card.payment.validation.CardBrand;
+import io.card.payment.validation.CardNumbers;
+
+/**
+ * Renders sequences of NV21 preview frames showing a made-up card, for benchmarking and stress
+ * testing the scanner without real card numbers.
+ * <p/>
+ * Each session draws a random Luhn-valid test card number on a generated card face, and a
+ * cluttered background, then moves the card like a hand holding it in front of the camera. Frames
+ * are degraded by perspective, motion blur, defocus, exposure, glare and sensor noise, each picked
+ * at random up to the limits of a {@link Degradation}. Sessions are written in the
+ * {@link RecordedSession} format with a <code>.label</code> file holding the number, so
+ * {@link ReplayBenchmark} can replay them like recorded ones. The same seed always gives the same
+ * frames.
+ */
+class SyntheticFrameGenerator {
+    static final int FRAME_WIDTH = 640;
+    static final int FRAME_HEIGHT = 480;
+    static final long FRAME_INTERVAL_NANOS = 1000000000L / 30;
+
+    // under the sample app's files directory, replayed by ReplayBenchmark by default
+    static final String SESSIONS_DIR = "cardio-synthetic-sessions";
+
+    // ISO/IEC 7810 ID-1, 85.60 x 53.98 mm
+    private static final int FACE_WIDTH = 856;
+    private static final int FACE_HEIGHT = 540;
+    // about a 56 degree horizontal field of view
+    private static final float FOCAL_LENGTH = 600;
+
+    // issuer numbers of the brands' published test cards, so no generated number is a real card
+    static final String[] TEST_BINS = {
+            "411111", "424242", "555555", "378282", "601111",
+    };
+
+    /**
+     * Upper limits of how much frames are degraded. Each session picks its own values up to these,
+     * and frames vary around them.
+     */
+    static class Degradation {
+        final float maxTiltDegrees;
+        final float maxMotionBlurPx;
+        final float maxDefocusPx;
+        final float maxNoiseSigma;
+        final float maxExposureStops;
+        final float glareProbability;
+        final int maxClutterShapes;
+
+        Degradation(float maxTiltDegrees, float maxMotionBlurPx, float maxDefocusPx,
+                    float maxNoiseSigma, float maxExposureStops, float glareProbability,
+                    int maxClutterShapes) {
+            this.maxTiltDegrees = maxTiltDegrees;
+            this.maxMotionBlurPx = maxMotionBlurPx;
+            this.maxDefocusPx = maxDefocusPx;
+            this.maxNoiseSigma = maxNoiseSigma;
+            this.maxExposureStops = maxExposureStops;
+            this.glareProbability = glareProbability;
+            this.maxClutterShapes = maxClutterShapes;
+        }
+
+        /**
+         * A card held still and square to the camera on a plain background.
+         */
+        static Degradation clean() {
+            return new Degradation(0, 0, 0, 0, 0, 0, 0);
+        }
+
+        /**
+         * Roughly what a user in a lit room produces.
+         */
+        static Degradation typical() {
+            return new Degradation(12, 4, 2, 6, 0.7f, 0.25f, 30);
+        }
+
+        /**
+         * Conditions in which scanning is expected to struggle.
+         */
+        static Degradation harsh() {
+            return new Degradation(30, 12, 5, 16, 2, 0.6f, 120);
+        }
+    }
+
+    private final Rect mGuideFrame;
+    private final Degradation mDegradation;
+    private final Random mRandom;
+
+    private final Bitmap mFrame =
+            Bitmap.createBitmap(FRAME_WIDTH, FRAME_HEIGHT, Bitmap.Config.ARGB_8888);
+    private final Canvas mCanvas = new Canvas(mFrame);
+    private final int[] mPixels = new int[FRAME_WIDTH * FRAME_HEIGHT];
+    private final int[] mScratch = new int[FRAME_WIDTH * FRAME_HEIGHT];
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
+    private final Matrix mMatrix = new Matrix();
+    private final float[] mCorners = new float[8];
+    private final float[] mFaceCorners = {
+            0, 0, FACE_WIDTH, 0, FACE_WIDTH, FACE_HEIGHT, 0, FACE_HEIGHT,
+    };
+
+    // the current session
+    private String mCardNumber;
+    private Bitmap mBackground;
+    private Bitmap mCardFace;
+    private Paint mGlare;
+    private float mScale;
+    private float mPitch;
+    private float mYaw;
+    private float mRoll;
+    private float mShake;
+    private float mMotionBlur;
+    private float mDefocus;
+    private float mExposureGain;
+    private float mNoiseSigma;
+    private float mPhase;
+    private float mCenterX;
+    private float mCenterY;
+
+    /**
+     * @param guideFrame where the card should appear in the frame, or null for a centered guide
+     *                   80% of the frame wide
+     */
+    SyntheticFrameGenerator(Rect guideFrame, Degradation degradation, long seed) {
+        if (guideFrame == null) {
+            int width = FRAME_WIDTH * 4 / 5;
+            int height = width * FACE_HEIGHT / FACE_WIDTH;
+            guideFrame = new Rect((FRAME_WIDTH - width) / 2, (FRAME_HEIGHT - height) / 2,
+                    (FRAME_WIDTH + width) / 2, (FRAME_HEIGHT + height) / 2);
+        }
+        mGuideFrame = guideFrame;
+        mDegradation = degradation;
+        mRandom = new Random(seed);
+    }
+
+    /**
+     * @return a random Luhn-valid number starting with one of the {@link #TEST_BINS}, with the
+     * length of its brand.
+     */
+    static String randomCardNumber(Random random) {
+        String bin = TEST_BINS[random.nextInt(TEST_BINS.length)];
+        int length = CardBrand.fromCardNumber(bin).numberLength();
+
+        StringBuilder number = new StringBuilder(bin);
+        while (number.length() < length - 1) {
+            number.append((char) ('0' + random.nextInt(10)));
+        }
+        number.append('0');
+        for (char check = '0'; check <= '9'; check++) {
+            number.setCharAt(length - 1, check);
+            if (CardNumbers.passesLuhnChecksum(number)) {
+                break;
+            }
+        }
+        return number.toString();
+    }
+
+    /**
+     * Starts a new session with a new card, background and degradation.
+     */
+    void startSession(String cardNumber) {
+        mCardNumber = cardNumber;
+        if (mCardFace != null) {
+            mCardFace.recycle();
+            mBackground.recycle();
+        }
+        mCardFace = renderCardFace(cardNumber, 1 + mRandom.nextInt(12),
+                2030 + mRandom.nextInt(10), mRandom);
+        mBackground = renderBackground(mRandom.nextInt(mDegradation.maxClutterShapes + 1));
+
+        Degradation d = mDegradation;
+        mScale = 0.85f + 0.2f * mRandom.nextFloat();
+        mPitch = symmetric(d.maxTiltDegrees);
+        mYaw = symmetric(d.maxTiltDegrees);
+        mRoll = symmetric(d.maxTiltDegrees / 3);
+        // the hand moving is what blurs frames
+        mShake = d.maxMotionBlurPx > 0 ? mRandom.nextFloat() : 0;
+        mMotionBlur = d.maxMotionBlurPx * mRandom.nextFloat();
+        mDefocus = d.maxDefocusPx * mRandom.nextFloat();
+        mExposureGain = (float) Math.pow(2, symmetric(d.maxExposureStops));
+        mNoiseSigma = d.maxNoiseSigma * mRandom.nextFloat();
+        mPhase = (float) (2 * Math.PI * mRandom.nextFloat());
+
+        mGlare = null;
+        if (mRandom.nextFloat() < d.glareProbability) {
+            float radius = FACE_HEIGHT * (0.2f + 0.5f * mRandom.nextFloat());
+            mGlare = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mGlare.setShader(new RadialGradient(FACE_WIDTH * mRandom.nextFloat(),
+                    FACE_HEIGHT * mRandom.nextFloat(), radius,
+                    Color.argb(160 + mRandom.nextInt(96), 255, 255, 255), Color.TRANSPARENT,
+                    Shader.TileMode.CLAMP));
+        }
+    }
+
+    String getCardNumber() {
+        return mCardNumber;
+    }
+
+    /**
+     * Renders frame <code>index</code> of the current session, at 30 fps.
+     */
+    void renderFrame(int index, byte[] nv21) {
+        float t = index * FRAME_INTERVAL_NANOS / 1e9f;
+        float previousX = mCenterX;
+        float previousY = mCenterY;
+        placeCard(t);
+
+        mCanvas.drawBitmap(mBackground, 0, 0, null);
+        mCanvas.save();
+        mCanvas.concat(mMatrix);
+        mCanvas.drawBitmap(mCardFace, 0, 0, mPaint);
+        if (mGlare != null) {
+            mCanvas.drawRect(0, 0, FACE_WIDTH, FACE_HEIGHT, mGlare);
+        }
+        mCanvas.restore();
+        mFrame.getPixels(mPixels, 0, FRAME_WIDTH, 0, 0, FRAME_WIDTH, FRAME_HEIGHT);
+
+        if (mMotionBlur > 0 && index > 0) {
+            // blurred along the direction the card moved, more when it moved faster
+            float dx = mCenterX - previousX;
+            float dy = mCenterY - previousY;
+            float distance = (float) Math.hypot(dx, dy);
+            int length = Math.round(Math.min(mMotionBlur, distance));
+            if (length > 1) {
+                motionBlur(mPixels, mScratch, dx / distance, dy / distance, length);
+            }
+        }
+        // the autofocus hunting back and forth
+        int defocus = Math.round(mDefocus * (0.5f + 0.5f * (float) Math.cos(t * Math.PI + mPhase)));
+        if (defocus > 0) {
+            boxBlur(mPixels, mScratch, defocus);
+            boxBlur(mPixels, mScratch, defocus);
+        }
+        exposeAndAddNoise(mPixels);
+
+        CardScannerTester.encodeYUV420SP(nv21, mPixels, FRAME_WIDTH, FRAME_HEIGHT);
+    }
+
+    /**
+     * Renders <code>frames</code> frames of a new session with a random card to
+     * <code>dir/name.cior</code>, and the card number to <code>dir/name.cior.label</code>.
+     *
+     * @return the session file
+     */
+    File writeSession(File dir, String name, int frames) throws IOException, InterruptedException {
+        startSession(randomCardNumber(mRandom));
+
+        File file = new File(dir, name + ".cior");
+        SessionRecorder recorder = new SessionRecorder(file, FRAME_WIDTH, FRAME_HEIGHT,
+                ImageFormat.NV21);
+        File written;
+        try {
+            byte[] nv21 = new byte[FRAME_WIDTH * FRAME_HEIGHT * 3 / 2];
+            for (int i = 0; i < frames; i++) {
+                renderFrame(i, nv21);
+                recorder.writeFrame(nv21, CardScanner.ORIENTATION_PORTRAIT,
+                        i * FRAME_INTERVAL_NANOS);
+            }
+        } finally {
+            written = recorder.close();
+        }
+        if (written == null) {
+            throw new IOException("could not write " + file);
+        }
+
+        Writer label = new FileWriter(new File(dir, file.getName() + ".label"));
+        try {
+            label.write(mCardNumber + "\n");
+        } finally {
+            label.close();
+        }
+        return file;
+    }
+
+    private float symmetric(float max) {
+        return max * (2 * mRandom.nextFloat() - 1);
+    }
+
+    /**
+     * Sets {@link #mMatrix} to project the card face into the frame at time <code>t</code>.
+     */
+    private void placeCard(float t) {
+        // a slow sway and a faster tremor, like a hand
+        float sway = (float) Math.sin(t * 1.3 + mPhase);
+        float tremor = (float) Math.sin(t * 9.7 + 2 * mPhase);
+        float shake = mShake * (0.7f * sway + 0.3f * tremor);
+
+        double pitch = Math.toRadians(mPitch * (1 + 0.3f * shake));
+        double yaw = Math.toRadians(mYaw * (1 - 0.3f * shake));
+        double roll = Math.toRadians(mRoll + 2 * shake);
+        float width = mGuideFrame.width() * mScale;
+        float height = width * FACE_HEIGHT / FACE_WIDTH;
+        mCenterX = mGuideFrame.exactCenterX() + shake * 0.06f * mGuideFrame.width();
+        mCenterY = mGuideFrame.exactCenterY() + tremor * mShake * 0.04f * mGuideFrame.height();
+
+        double cp = Math.cos(pitch), sp = Math.sin(pitch);
+        double cy = Math.cos(yaw), sy = Math.sin(yaw);
+        double cr = Math.cos(roll), sr = Math.sin(roll);
+        for (int i = 0; i < 4; i++) {
+            double x = (mFaceCorners[2 * i] / FACE_WIDTH - 0.5) * width;
+            double y = (mFaceCorners[2 * i + 1] / FACE_HEIGHT - 0.5) * height;
+            // roll, then pitch around the x axis, then yaw around the y axis
+            double rx = x * cr - y * sr;
+            double ry = x * sr + y * cr;
+            double py = ry * cp;
+            double pz = ry * sp;
+            double yx = rx * cy + pz * sy;
+            double yz = -rx * sy + pz * cy;
+            double scale = FOCAL_LENGTH / (FOCAL_LENGTH + yz);
+            mCorners[2 * i] = (float) (mCenterX + yx * scale);
+            mCorners[2 * i + 1] = (float) (mCenterY + py * scale);
+        }
+        mMatrix.setPolyToPoly(mFaceCorners, 0, mCorners, 0, 4);
+    }
+
+    private Bitmap renderBackground(int clutterShapes) {
+        Bitmap background =
+                Bitmap.createBitmap(FRAME_WIDTH, FRAME_HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(background);
+        canvas.drawColor(randomColor(mRandom, 0.1f, 0.7f));
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        for (int i = 0; i < clutterShapes; i++) {
+            paint.setColor(randomColor(mRandom, 0, 1));
+            paint.setStrokeWidth(1 + mRandom.nextInt(8));
+            paint.setStyle(mRandom.nextBoolean() ? Paint.Style.FILL : Paint.Style.STROKE);
+            float x = mRandom.nextFloat() * FRAME_WIDTH;
+            float y = mRandom.nextFloat() * FRAME_HEIGHT;
+            float size = 10 + mRandom.nextFloat() * FRAME_WIDTH / 4;
+            switch (mRandom.nextInt(4)) {
+                case 0:
+                    canvas.drawRect(x, y, x + size, y + size * mRandom.nextFloat(), paint);
+                    break;
+                case 1:
+                    canvas.drawOval(new RectF(x, y, x + size, y + size * mRandom.nextFloat()),
+                            paint);
+                    break;
+                case 2:
+                    canvas.drawLine(x, y, mRandom.nextFloat() * FRAME_WIDTH,
+                            mRandom.nextFloat() * FRAME_HEIGHT, paint);
+                    break;
+                default:
+                    // stray digits, which must not end up in a result
+                    paint.setTextSize(12 + mRandom.nextInt(40));
+                    canvas.drawText(Integer.toString(mRandom.nextInt(100000)), x, y, paint);
+                    break;
+            }
+        }
+        return background;
+    }
+
+    private static Bitmap renderCardFace(String number, int expiryMonth, int expiryYear,
+                                         Random random) {
+        Bitmap face = Bitmap.createBitmap(FACE_WIDTH, FACE_HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(face);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        paint.setShader(new LinearGradient(0, 0, FACE_WIDTH, FACE_HEIGHT,
+                randomColor(random, 0.2f, 0.8f), randomColor(random, 0.2f, 0.8f),
+                Shader.TileMode.CLAMP));
+        canvas.drawRoundRect(new RectF(0, 0, FACE_WIDTH, FACE_HEIGHT), 32, 32, paint);
+        paint.setShader(null);
+
+        // decoration
+        for (int i = random.nextInt(4); i > 0; i--) {
+            paint.setColor(randomColor(random, 0.3f, 1) & 0x40ffffff);
+            canvas.drawCircle(random.nextFloat() * FACE_WIDTH, random.nextFloat() * FACE_HEIGHT,
+                    FACE_HEIGHT * (0.2f + random.nextFloat()), paint);
+        }
+
+        // chip
+        paint.setColor(Color.rgb(212, 175, 95));
+        canvas.drawRoundRect(new RectF(90, 190, 200, 275), 12, 12, paint);
+
+        // embossed digits: a dark shadow below right, a light edge above left
+        paint.setTypeface(Typeface.create(Typeface.MONOSPACE, Typeface.BOLD));
+        paint.setTextSize(62);
+        String formatted = CardNumbers.formatString(number);
+        drawEmbossed(canvas, paint, formatted, 70, 370);
+        paint.setTextSize(36);
+        drawEmbossed(canvas, paint, String.format("%02d/%02d", expiryMonth, expiryYear % 100),
+                330, 440);
+        drawEmbossed(canvas, paint, "TEST CARDHOLDER", 70, 500);
+        return face;
+    }
+
+    private static void drawEmbossed(Canvas canvas, Paint paint, String text, float x, float y) {
+        paint.setColor(Color.argb(160, 0, 0, 0));
+        canvas.drawText(text, x + 2, y + 2, paint);
+        paint.setColor(Color.argb(200, 255, 255, 255));
+        canvas.drawText(text, x - 1, y - 1, paint);
+        paint.setColor(Color.rgb(225, 225, 215));
+        canvas.drawText(text, x, y, paint);
+    }
+
+    private static int randomColor(Random random, float minValue, float maxValue) {
+        float[] hsv = {
+                360 * random.nextFloat(),
+                random.nextFloat(),
+                minValue + (maxValue - minValue) * random.nextFloat(),
+        };
+        return Color.HSVToColor(hsv);
+    }
+
+    /**
+     * Averages <code>length</code> samples along the direction (dx, dy), a unit vector.
+     */
+    private static void motionBlur(int[] pixels, int[] scratch, float dx, float dy, int length) {
+        for (int y = 0; y < FRAME_HEIGHT; y++) {
+            for (int x = 0; x < FRAME_WIDTH; x++) {
+                int r = 0, g = 0, b = 0;
+                for (int i = 0; i < length; i++) {
+                    float offset = i - (length - 1) / 2f;
+                    int sx = clamp(Math.round(x + dx * offset), 0, FRAME_WIDTH - 1);
+                    int sy = clamp(Math.round(y + dy * offset), 0, FRAME_HEIGHT - 1);
+                    int argb = pixels[sy * FRAME_WIDTH + sx];
+                    r += (argb >> 16) & 0xff;
+                    g += (argb >> 8) & 0xff;
+                    b += argb & 0xff;
+                }
+                scratch[y * FRAME_WIDTH + x] = Color.rgb(r / length, g / length, b / length);
+            }
+        }
+        System.arraycopy(scratch, 0, pixels, 0, pixels.length);
+    }
+
+    /**
+     * Separable box blur. Two passes approximate a gaussian, like a lens out of focus.
+     */
+    private static void boxBlur(int[] pixels, int[] scratch, int radius) {
+        blurLines(pixels, scratch, FRAME_HEIGHT, FRAME_WIDTH, FRAME_WIDTH, 1, radius);
+        blurLines(scratch, pixels, FRAME_WIDTH, FRAME_HEIGHT, 1, FRAME_WIDTH, radius);
+    }
+
+    private static void blurLines(int[] src, int[] dst, int lines, int lineLength, int lineStride,
+                                  int pixelStride, int radius) {
+        int window = 2 * radius + 1;
+        for (int line = 0; line < lines; line++) {
+            int start = line * lineStride;
+            int r = 0, g = 0, b = 0;
+            for (int i = -radius; i <= radius; i++) {
+                int argb = src[start + clamp(i, 0, lineLength - 1) * pixelStride];
+                r += (argb >> 16) & 0xff;
+                g += (argb >> 8) & 0xff;
+                b += argb & 0xff;
+            }
+            for (int i = 0; i < lineLength; i++) {
+                dst[start + i * pixelStride] = Color.rgb(r / window, g / window, b / window);
+                int out = src[start + clamp(i - radius, 0, lineLength - 1) * pixelStride];
+                int in = src[start + clamp(i + radius + 1, 0, lineLength - 1) * pixelStride];
+                r += ((in >> 16) & 0xff) - ((out >> 16) & 0xff);
+                g += ((in >> 8) & 0xff) - ((out >> 8) & 0xff);
+                b += (in & 0xff) - (out & 0xff);
+            }
+        }
+    }
+
+    private void exposeAndAddNoise(int[] pixels) {
+        if (mExposureGain == 1 && mNoiseSigma == 0) {
+            return;
+        }
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            // sensor noise is mostly in luma
+            float noise = mNoiseSigma == 0 ? 0 : (float) mRandom.nextGaussian() * mNoiseSigma;
+            int r = clamp(Math.round(((argb >> 16) & 0xff) * mExposureGain + noise), 0, 255);
+            int g = clamp(Math.round(((argb >> 8) & 0xff) * mExposureGain + noise), 0, 255);
+            int b = clamp(Math.round((argb & 0xff) * mExposureGain + noise), 0, 255);
+            pixels[i] = Color.rgb(r, g, b);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+}
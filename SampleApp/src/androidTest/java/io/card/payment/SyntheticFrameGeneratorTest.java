@@ -0,0 +1,119 @@
+package io.card.payment;
+
+/* SyntheticFrameGeneratorTest.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import io.card.payment.validation.CardBrand;
+import io.card.payment.validation.CardNumbers;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks the output of {@link SyntheticFrameGenerator}, and generates a corpus for
+ * {@link ReplayBenchmark} when run with the <code>syntheticSessions</code> instrumentation argument
+ * set to the number of sessions. <code>syntheticFrames</code> (default 90),
+ * <code>syntheticDegradation</code> (<code>clean</code>, <code>typical</code> or
+ * <code>harsh</code>, default <code>typical</code>) and <code>syntheticSeed</code> (default 1)
+ * shape it.
+ */
+public class SyntheticFrameGeneratorTest {
+
+    private static final String TAG = "SyntheticFrameGenerator";
+
+    @Test
+    public void randomCardNumbersAreValid() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            String number = SyntheticFrameGenerator.randomCardNumber(random);
+            assertTrue(number, CardNumbers.passesLuhnChecksum(number));
+            assertEquals(number, CardBrand.fromCardNumber(number).numberLength(), number.length());
+            assertTrue(number, Arrays.asList(SyntheticFrameGenerator.TEST_BINS)
+                    .contains(number.substring(0, 6)));
+        }
+    }
+
+    @Test
+    public void writesReplayableLabeledSessions() throws Exception {
+        File dir = getInstrumentation().getTargetContext().getCacheDir();
+        SyntheticFrameGenerator generator = new SyntheticFrameGenerator(null,
+                SyntheticFrameGenerator.Degradation.harsh(), 42);
+        File file = generator.writeSession(dir, "synthetic-test", 10);
+        File label = new File(file.getPath() + ".label");
+        try {
+            RecordedSession session = new RecordedSession(file);
+            RecordedSession.Frame frame = new RecordedSession.Frame();
+            try {
+                assertEquals(SyntheticFrameGenerator.FRAME_WIDTH, session.getWidth());
+                assertEquals(SyntheticFrameGenerator.FRAME_HEIGHT, session.getHeight());
+                for (int i = 0; i < 10; i++) {
+                    assertTrue("missing frame " + i, session.nextFrame(frame));
+                    assertEquals(i * SyntheticFrameGenerator.FRAME_INTERVAL_NANOS,
+                            frame.timestampNanos);
+                    assertEquals(CardScanner.ORIENTATION_PORTRAIT, frame.orientation);
+                    assertEquals(session.getWidth() * session.getHeight() * 3 / 2, frame.length);
+                }
+                assertFalse(session.nextFrame(frame));
+            } finally {
+                session.close();
+            }
+
+            BufferedReader reader = new BufferedReader(new FileReader(label));
+            try {
+                assertEquals(generator.getCardNumber(), reader.readLine());
+            } finally {
+                reader.close();
+            }
+        } finally {
+            file.delete();
+            label.delete();
+        }
+    }
+
+    @Test
+    public void generateCorpus() throws Exception {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String sessions = arguments == null ? null : arguments.getString("syntheticSessions");
+        assumeTrue("syntheticSessions not set", sessions != null);
+
+        int frames = Integer.parseInt(arguments.getString("syntheticFrames", "90"));
+        String degradationName = arguments.getString("syntheticDegradation", "typical");
+        long seed = Long.parseLong(arguments.getString("syntheticSeed", "1"));
+        SyntheticFrameGenerator.Degradation degradation;
+        if ("clean".equals(degradationName)) {
+            degradation = SyntheticFrameGenerator.Degradation.clean();
+        } else if ("harsh".equals(degradationName)) {
+            degradation = SyntheticFrameGenerator.Degradation.harsh();
+        } else {
+            degradation = SyntheticFrameGenerator.Degradation.typical();
+        }
+
+        File dir = new File(getInstrumentation().getTargetContext().getFilesDir(),
+                SyntheticFrameGenerator.SESSIONS_DIR);
+        assertTrue("could not create " + dir, dir.isDirectory() || dir.mkdirs());
+
+        SyntheticFrameGenerator generator = new SyntheticFrameGenerator(null, degradation, seed);
+        int count = Integer.parseInt(sessions);
+        for (int i = 0; i < count; i++) {
+            File file = generator.writeSession(dir,
+                    "synthetic-" + degradationName + "-" + seed + "-" + i, frames);
+            Log.i(TAG, "wrote " + file);
+        }
+    }
+}
@@ -24,9 +24,9 @@ import java.util.List;
 
 import io.card.payment.CardIOActivity;
 import io.card.payment.CardType;
+import io.card.payment.CardTypeIcons;
 import io.card.payment.CreditCard;
-import io.card.payment.i18n.StringKey;
-import io.card.payment.i18n.SupportedLocale;
+import io.card.payment.ScanSessionMetrics;
 import io.card.payment.i18n.locales.LocalizedStringsList;
 
 public class SampleActivity extends Activity {
@@ -92,6 +92,9 @@ public class SampleActivity extends Activity {
 
         setScanExpiryEnabled();
         setupLanguageList();
+
+        // get the native libraries loaded before the user taps scan
+        CardIOActivity.prewarm();
     }
 
     private void setScanExpiryEnabled() {
@@ -157,6 +160,11 @@ public class SampleActivity extends Activity {
         super.onActivityResult(requestCode, resultCode, data);
         Log.v(TAG, "onActivityResult(" + requestCode + ", " + resultCode + ", " + data + ")");
 
+        ScanSessionMetrics metrics = CardIOActivity.getScanMetrics(data);
+        if (metrics != null) {
+            Log.i(TAG, "scan metrics: " + metrics);
+        }
+
         String outStr = new String();
         Bitmap cardTypeImage = null;
 
@@ -167,7 +175,7 @@ public class SampleActivity extends Activity {
                 outStr += "Card number: " + result.getRedactedCardNumber() + "\n";
 
                 CardType cardType = result.getCardType();
-                cardTypeImage = cardType.imageBitmap(this);
+                cardTypeImage = CardTypeIcons.getIcon(this, cardType);
                 outStr += "Card type: " + cardType.name() + " cardType.getDisplayName(null)="
                         + cardType.getDisplayName(null) + "\n";
 
@@ -211,10 +219,7 @@ public class SampleActivity extends Activity {
     }
 
     private void setupLanguageList() {
-        List<String> languages = new ArrayList<>();
-        for (SupportedLocale<StringKey> locale : LocalizedStringsList.ALL_LOCALES) {
-            languages.add(locale.getName());
-        }
+        List<String> languages = new ArrayList<>(LocalizedStringsList.ALL_LOCALE_NAMES);
 
         ArrayAdapter<String> adapter = new ArrayAdapter<>(this,
                 android.R.layout.simple_dropdown_item_1line, languages);
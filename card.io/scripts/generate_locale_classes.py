@@ -0,0 +1,184 @@
+#!/usr/bin/env python3
+# generate_locale_classes.py
+# See the file "LICENSE.md" for the full license governing this code.
+"""
+Post-processes the locale classes written by lib-i18n's generate_android_i18n.py.
+
+generate_android_i18n.py writes one LocalizedStrings<LOCALE> class per locale, which fills a
+HashMap of its strings in its constructor. This script rewrites each of them to keep its strings in
+a static String[] indexed by StringKey ordinal, filled when the class is first used, and writes
+LocalizedStringsList, which creates a locale by name only when it is asked for.
+
+Run it after generate_android_i18n.py, or on the already converted classes to regenerate
+LocalizedStringsList after adding or removing a locale:
+
+    card.io/scripts/generate_locale_classes.py [locales_dir]
+"""
+
+import os
+import re
+import sys
+
+SCRIPT = "card.io/scripts/generate_locale_classes.py"
+DEFAULT_LOCALES_DIR = os.path.join(os.path.dirname(os.path.abspath(__file__)), os.pardir,
+                                   "src", "main", "java", "io", "card", "payment", "i18n",
+                                   "locales")
+LIST_CLASS = "LocalizedStringsList"
+
+CLASS_RE = re.compile(r"^public class (LocalizedStrings\w+) implements", re.M)
+NAME_RE = re.compile(r'public String getName\(\) \{\s*return "([^"]+)";')
+# a HashMap put from generate_android_i18n.py, or an array store from an earlier run
+ENTRY_RE = re.compile(r'^\s*mDisplay(?:\.put\(StringKey\.(\w+), |\[StringKey\.(\w+)\.ordinal\(\)\] = )'
+                      r'("(?:[^"\\]|\\.)*")\)?;$', re.M)
+CONVERTED_HEADER = ("// Converted to static ordinal-indexed arrays via script:\n"
+                    "// " + SCRIPT + "\n")
+
+
+def parse_locale(path):
+    with open(path, encoding="utf-8") as f:
+        source = f.read()
+    if "mAdapted.put(" in source:
+        sys.exit(path + ": adapted translations are not supported, extend " + SCRIPT)
+
+    class_match = CLASS_RE.search(source)
+    name_match = NAME_RE.search(source)
+    if class_match is None or name_match is None:
+        sys.exit(path + ": not a generated locale class")
+
+    header = source[source.index("// Class autogenerated!"):class_match.start()]
+    header = header.replace(CONVERTED_HEADER, "").rstrip("\n") + "\n"
+    entries = [(m.group(1) or m.group(2), m.group(3)) for m in ENTRY_RE.finditer(source)]
+    if not entries:
+        sys.exit(path + ": no strings found")
+    return class_match.group(1), name_match.group(1), header, entries
+
+
+def write_locale(path, class_name, name, header, entries):
+    lines = [
+        "package io.card.payment.i18n.locales;",
+        "",
+        "import io.card.payment.i18n.StringKey;",
+        "import io.card.payment.i18n.SupportedLocale;",
+        "",
+        header + CONVERTED_HEADER,
+        "public class %s implements SupportedLocale<StringKey> {" % class_name,
+        "",
+        "    private static final String[] mDisplay = new String[StringKey.values().length];",
+        "",
+        "    static {",
+    ]
+    for key, value in entries:
+        lines.append("        mDisplay[StringKey.%s.ordinal()] = %s;" % (key, value))
+    lines += [
+        "    }",
+        "",
+        "    @Override",
+        "    public String getName() {",
+        '        return "%s";' % name,
+        "    }",
+        "",
+        "    @Override",
+        "    public String getAdaptedDisplay(StringKey key, String country) {",
+        "        // no adapted_translations found",
+        "        return mDisplay[key.ordinal()];",
+        "    }",
+        "}",
+        "",
+    ]
+    with open(path, "w", encoding="utf-8") as f:
+        f.write("\n".join(lines))
+
+
+def write_list(path, locales):
+    lines = [
+        "package io.card.payment.i18n.locales;",
+        "",
+        "import java.util.AbstractList;",
+        "import java.util.ArrayList;",
+        "import java.util.Arrays;",
+        "import java.util.Collections;",
+        "import java.util.List;",
+        "",
+        "import io.card.payment.i18n.StringKey;",
+        "import io.card.payment.i18n.SupportedLocale;",
+        "",
+        "// Class autogenerated!  Do not modify.",
+        "// Generated via script:",
+        "// " + SCRIPT,
+        "",
+        "public class %s {" % LIST_CLASS,
+        "    public static final List<String> ALL_LOCALE_NAMES = Collections.unmodifiableList(Arrays.asList(",
+    ]
+    lines.append(",\n".join('            "%s"' % name for name, _ in locales))
+    lines += [
+        "    ));",
+        "",
+        "    /**",
+        "     * All supported locales, in the order of {@link #ALL_LOCALE_NAMES}. A locale's string table",
+        "     * is loaded when the locale is first read from this list.",
+        "     *",
+        "     * @deprecated use {@link #ALL_LOCALE_NAMES} and {@link #createLocale(String)}.",
+        "     */",
+        "    @Deprecated",
+        "    public static final List<SupportedLocale<StringKey>> ALL_LOCALES = new LazyLocaleList();",
+        "",
+        "    /**",
+        "     * Creates the locale with the given name, loading its string table. Returns <code>null</code>",
+        "     * if the locale is not supported.",
+        "     */",
+        "    public static SupportedLocale<StringKey> createLocale(String localeName) {",
+        "        switch (localeName) {",
+    ]
+    for name, class_name in locales:
+        lines.append('            case "%s":' % name)
+        lines.append("                return new %s();" % class_name)
+    lines += [
+        "            default:",
+        "                return null;",
+        "        }",
+        "    }",
+        "",
+        "    private static class LazyLocaleList extends AbstractList<SupportedLocale<StringKey>> {",
+        "        private final List<SupportedLocale<StringKey>> mLocales = new ArrayList<>(",
+        "                Collections.<SupportedLocale<StringKey>>nCopies(ALL_LOCALE_NAMES.size(), null));",
+        "",
+        "        @Override",
+        "        public synchronized SupportedLocale<StringKey> get(int index) {",
+        "            SupportedLocale<StringKey> locale = mLocales.get(index);",
+        "            if (locale == null) {",
+        "                locale = createLocale(ALL_LOCALE_NAMES.get(index));",
+        "                mLocales.set(index, locale);",
+        "            }",
+        "            return locale;",
+        "        }",
+        "",
+        "        @Override",
+        "        public int size() {",
+        "            return mLocales.size();",
+        "        }",
+        "    }",
+        "}",
+        "",
+    ]
+    with open(path, "w", encoding="utf-8") as f:
+        f.write("\n".join(lines))
+
+
+def main():
+    locales_dir = sys.argv[1] if len(sys.argv) > 1 else DEFAULT_LOCALES_DIR
+    locales = []
+    for file_name in sorted(os.listdir(locales_dir)):
+        if not file_name.startswith("LocalizedStrings") or not file_name.endswith(".java") \
+                or file_name == LIST_CLASS + ".java":
+            continue
+        path = os.path.join(locales_dir, file_name)
+        class_name, name, header, entries = parse_locale(path)
+        write_locale(path, class_name, name, header, entries)
+        locales.append((name, class_name))
+
+    locales.sort()
+    write_list(os.path.join(locales_dir, LIST_CLASS + ".java"), locales)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,130 @@
+package io.card.payment;
+
+/* AutoFocusScheduler.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Rect;
+import android.hardware.Camera;
+import android.hardware.Camera.Parameters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides when the camera should run an autofocus sweep.
+ * <p/>
+ * Where the camera supports it, focus is left to a continuous focus mode and sweeps are only forced
+ * occasionally. Forced sweeps triggered by low focus scores back off exponentially while the card
+ * stays out of focus, so the lens doesn't hunt continuously. Manual (tap) sweeps are never delayed.
+ * <p/>
+ * Frames captured while a sweep is running are blurred and should not be recognized.
+ */
+class AutoFocusScheduler {
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MIN_BACKOFF_CONTINUOUS_MS = 2000;
+    private static final long MAX_BACKOFF_MS = 8000;
+
+    // some devices never call back onAutoFocus(). Don't wait on them forever.
+    private static final long SWEEP_TIMEOUT_MS = 3000;
+
+    private static final int FOCUS_AREA_WEIGHT = 1000;
+
+    private boolean mContinuous;
+    private long mSweepStartedAt;
+    private long mSweepCompletedAt;
+    private long mBackoff = MIN_BACKOFF_MS;
+    private long mNextSweepAllowedAt;
+
+    /**
+     * Selects the preferred focus mode and points the focus area at the guide frame. Changes are
+     * left pending on the parameters, the caller commits them.
+     *
+     * @param guideFrame the guide frame in frame (sensor) coordinates, or <code>null</code>
+     */
+    void configure(CachedCameraParameters parameters, Rect guideFrame, int frameWidth,
+                   int frameHeight) {
+        if (!parameters.setFocusMode(Parameters.FOCUS_MODE_CONTINUOUS_PICTURE)
+                && !parameters.setFocusMode(Parameters.FOCUS_MODE_CONTINUOUS_VIDEO)) {
+            parameters.setFocusMode(Parameters.FOCUS_MODE_AUTO);
+        }
+
+        if (guideFrame != null) {
+            List<Camera.Area> areas = new ArrayList<>(1);
+            areas.add(new Camera.Area(toCameraArea(guideFrame, frameWidth, frameHeight),
+                    FOCUS_AREA_WEIGHT));
+            parameters.setFocusAreas(areas);
+        }
+    }
+
+    /**
+     * Called once the focus mode the camera actually ended up in is known.
+     */
+    void onConfigured(String focusMode) {
+        mContinuous = Parameters.FOCUS_MODE_CONTINUOUS_PICTURE.equals(focusMode)
+                || Parameters.FOCUS_MODE_CONTINUOUS_VIDEO.equals(focusMode);
+        reset();
+    }
+
+    void reset() {
+        mSweepStartedAt = 0;
+        mSweepCompletedAt = 0;
+        mBackoff = mContinuous ? MIN_BACKOFF_CONTINUOUS_MS : MIN_BACKOFF_MS;
+        mNextSweepAllowedAt = 0;
+    }
+
+    boolean isContinuous() {
+        return mContinuous;
+    }
+
+    boolean isSweeping(long now) {
+        return mSweepCompletedAt < mSweepStartedAt && now - mSweepStartedAt < SWEEP_TIMEOUT_MS;
+    }
+
+    /**
+     * @return <code>true</code> if a sweep should be started now.
+     */
+    boolean shouldSweep(boolean isManual, long now) {
+        if (isSweeping(now)) {
+            return false;
+        }
+        return isManual || now >= mNextSweepAllowedAt;
+    }
+
+    void onSweepStarted(boolean isManual, long now) {
+        mSweepStartedAt = now;
+        if (!isManual) {
+            mNextSweepAllowedAt = now + mBackoff;
+            mBackoff = Math.min(mBackoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    void onSweepCompleted(long now) {
+        mSweepCompletedAt = now;
+    }
+
+    /**
+     * Called when a frame's focus score is good enough. Subsequent forced sweeps start again at
+     * the shortest backoff.
+     */
+    void onFocusSufficient() {
+        mBackoff = mContinuous ? MIN_BACKOFF_CONTINUOUS_MS : MIN_BACKOFF_MS;
+        mNextSweepAllowedAt = 0;
+    }
+
+    /**
+     * Maps a rect in frame coordinates to the -1000..1000 coordinate space of {@link Camera.Area}.
+     */
+    static Rect toCameraArea(Rect frameRect, int frameWidth, int frameHeight) {
+        Rect area = new Rect(
+                frameRect.left * 2000 / frameWidth - 1000,
+                frameRect.top * 2000 / frameHeight - 1000,
+                frameRect.right * 2000 / frameWidth - 1000,
+                frameRect.bottom * 2000 / frameHeight - 1000);
+        area.left = Math.max(-1000, area.left);
+        area.top = Math.max(-1000, area.top);
+        area.right = Math.min(1000, area.right);
+        area.bottom = Math.min(1000, area.bottom);
+        return area;
+    }
+}
@@ -0,0 +1,179 @@
+package io.card.payment;
+
+/* CachedCameraParameters.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.hardware.Camera;
+
+import java.util.List;
+
+/**
+ * Local copy of a {@link Camera}'s parameters.
+ * <p/>
+ * Every {@link Camera#getParameters()} and {@link Camera#setParameters(Camera.Parameters)} call
+ * flattens and parses the full parameter string over IPC to the camera service. This class reads
+ * the parameters once, answers queries locally, and only pushes them back to the camera from
+ * {@link #commit()} when something actually changed.
+ */
+class CachedCameraParameters {
+    private final Camera mCamera;
+    private Camera.Parameters mParameters;
+    private boolean mDirty;
+    // bumped whenever the camera accepted new parameters
+    private int mGeneration;
+
+    CachedCameraParameters(Camera camera) {
+        mCamera = camera;
+        mParameters = camera.getParameters();
+    }
+
+    int getPreviewFormat() {
+        return mParameters.getPreviewFormat();
+    }
+
+    void setPreviewSize(int width, int height) {
+        Camera.Size current = mParameters.getPreviewSize();
+        if (current == null || current.width != width || current.height != height) {
+            mParameters.setPreviewSize(width, height);
+            mDirty = true;
+        }
+    }
+
+    String getFlashMode() {
+        return mParameters.getFlashMode();
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support the given mode.
+     */
+    boolean setFlashMode(String mode) {
+        if (mode.equals(mParameters.getFlashMode())) {
+            return true;
+        }
+        if (!isSupported(mode, mParameters.getSupportedFlashModes())) {
+            return false;
+        }
+        mParameters.setFlashMode(mode);
+        mDirty = true;
+        return true;
+    }
+
+    String getFocusMode() {
+        return mParameters.getFocusMode();
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support the given mode.
+     */
+    boolean setFocusMode(String mode) {
+        if (mode.equals(mParameters.getFocusMode())) {
+            return true;
+        }
+        if (!isSupported(mode, mParameters.getSupportedFocusModes())) {
+            return false;
+        }
+        mParameters.setFocusMode(mode);
+        mDirty = true;
+        return true;
+    }
+
+    boolean isFocusModeSupported(String mode) {
+        return isSupported(mode, mParameters.getSupportedFocusModes());
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support focus areas.
+     */
+    boolean setFocusAreas(List<Camera.Area> areas) {
+        if (mParameters.getMaxNumFocusAreas() < areas.size()) {
+            return false;
+        }
+        mParameters.setFocusAreas(areas);
+        mDirty = true;
+        return true;
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support metering areas.
+     */
+    boolean setMeteringAreas(List<Camera.Area> areas) {
+        if (mParameters.getMaxNumMeteringAreas() < areas.size()) {
+            return false;
+        }
+        mParameters.setMeteringAreas(areas);
+        mDirty = true;
+        return true;
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support locking auto-exposure.
+     */
+    boolean setAutoExposureLock(boolean lock) {
+        if (!mParameters.isAutoExposureLockSupported()) {
+            return false;
+        }
+        if (mParameters.getAutoExposureLock() != lock) {
+            mParameters.setAutoExposureLock(lock);
+            mDirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * @return <code>false</code> if the camera doesn't support locking auto-white-balance.
+     */
+    boolean setAutoWhiteBalanceLock(boolean lock) {
+        if (!mParameters.isAutoWhiteBalanceLockSupported()) {
+            return false;
+        }
+        if (mParameters.getAutoWhiteBalanceLock() != lock) {
+            mParameters.setAutoWhiteBalanceLock(lock);
+            mDirty = true;
+        }
+        return true;
+    }
+
+    boolean isDirty() {
+        return mDirty;
+    }
+
+    /**
+     * @return a number that changes with every successful {@link #commit()}.
+     */
+    int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * @return the parameters as last committed, in {@link Camera.Parameters#flatten()} form.
+     */
+    String flatten() {
+        return mParameters.flatten();
+    }
+
+    /**
+     * Pushes all pending changes to the camera in a single
+     * {@link Camera#setParameters(Camera.Parameters)} call. If the camera rejects them, the local
+     * copy is re-read from the camera so it doesn't drift from the real state, and the exception
+     * is rethrown.
+     */
+    void commit() {
+        if (!mDirty) {
+            return;
+        }
+        try {
+            mCamera.setParameters(mParameters);
+            mGeneration++;
+        } catch (RuntimeException e) {
+            mParameters = mCamera.getParameters();
+            throw e;
+        } finally {
+            mDirty = false;
+        }
+    }
+
+    private static boolean isSupported(String value, List<String> supported) {
+        return supported != null && supported.contains(value);
+    }
+}
@@ -40,8 +40,12 @@ import android.widget.RelativeLayout;
 import android.widget.Toast;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import io.card.payment.i18n.LocalizedStrings;
 import io.card.payment.i18n.StringKey;
@@ -201,6 +205,66 @@ public final class CardIOActivity extends Activity {
      */
     public static final String EXTRA_RETURN_CARD_IMAGE = "io.card.payment.returnCardImage";
 
+    /**
+     * Parcelable extra containing {@link ScanSessionMetrics}. The data intent returned to your
+     * {@link android.app.Activity} contains this extra whenever the camera was set up, whatever the
+     * result code, including {@link Activity#RESULT_CANCELED}.
+     */
+    public static final String EXTRA_SCAN_METRICS = "io.card.payment.scanMetrics";
+
+    /**
+     * Boolean extra. Optional. Defaults to <code>false</code>. If set to <code>true</code>, the scan
+     * pipeline emits trace sections named <code>cardio:*</code>, from Java and native code, which
+     * show up in systrace and Perfetto captures. Requires Android 4.3, native sections require
+     * Android 6.0. Meant for profiling; leave it unset in production.
+     */
+    public static final String EXTRA_ENABLE_TRACING = "io.card.payment.enableTracing";
+
+    /**
+     * Integer extra. Optional. Defaults to 0, which disables the flight recorder. card.io always
+     * keeps per-frame details of the last 256 preview frames: timestamps, focus scores, detected
+     * edges, stage timings and why frames were skipped. If this value is set, a session that takes
+     * longer than this many milliseconds to scan the card, or that ends without a scanned card
+     * (manual entry or cancel), writes those details as a CSV file to app-private storage. The
+     * data intent then contains its path under {@link #EXTRA_FLIGHT_RECORDING}. At most ten
+     * recordings are kept.
+     */
+    public static final String EXTRA_FLIGHT_RECORDER_THRESHOLD = "io.card.payment.flightRecorderThreshold";
+
+    /**
+     * Boolean extra. Optional. Defaults to <code>false</code>. If set to <code>true</code>, flight
+     * recordings also contain a 16x10 grayscale thumbnail of the guide frame of each scanned frame.
+     */
+    public static final String EXTRA_FLIGHT_RECORDER_THUMBNAILS = "io.card.payment.flightRecorderThumbnails";
+
+    /**
+     * String extra containing the absolute path of a flight recording, see
+     * {@link #EXTRA_FLIGHT_RECORDER_THRESHOLD}. The recording is written in the background and the
+     * file only exists once it is complete, which can be shortly after the result is delivered.
+     */
+    public static final String EXTRA_FLIGHT_RECORDING = "io.card.payment.flightRecording";
+
+    private static final String FLIGHT_RECORDINGS_DIR = "cardio-flight-recordings";
+
+    /**
+     * Boolean extra. Optional. Defaults to <code>false</code>. If set to <code>true</code>, every
+     * preview frame, up to about 20 seconds of them, is written to app-private storage together
+     * with its timestamp, the frame orientation and the camera parameters in use, so the session
+     * can be replayed offline. The data intent then contains the path of the recording under
+     * {@link #EXTRA_SESSION_RECORDING}. At most three recordings are kept.
+     * <br><br>
+     * Recordings contain full images of the card. This extra is ignored unless the host app is
+     * debuggable; it is meant for debugging and QA only.
+     */
+    public static final String EXTRA_RECORD_SESSION = "io.card.payment.recordSession";
+
+    /**
+     * String extra containing the absolute path of a session recording, see
+     * {@link #EXTRA_RECORD_SESSION}. The recording is written in the background and the file only
+     * exists once it is complete, which can be a few seconds after the result is delivered.
+     */
+    public static final String EXTRA_SESSION_RECORDING = "io.card.payment.sessionRecording";
+
     /**
      * Integer extra. Optional. If this value is provided the view will be inflated and will overlay
      * the camera during the scan process. The integer value must be the id of a valid layout
@@ -413,7 +477,7 @@ public final class CardIOActivity extends Activity {
 
     private void checkCamera() {
         try {
-            if (!Util.hardwareSupported()) {
+            if (!Util.hardwareSupported(this)) {
                 StringKey errorKey = StringKey.ERROR_NO_DEVICE_SUPPORT;
                 String localizedError = LocalizedStrings.getString(errorKey);
                 Log.w(Util.PUBLIC_LOG_TAG, errorKey + ": " + localizedError);
@@ -658,6 +722,7 @@ public final class CardIOActivity extends Activity {
                 Log.w(TAG, "*** could not return to preview: " + re);
             }
         } else if (mCardScanner != null) {
+            setResult(RESULT_CANCELED, withScanMetrics(null));
             super.onBackPressed();
         }
     }
@@ -675,8 +740,22 @@ public final class CardIOActivity extends Activity {
      * @return <code>true</code> if camera is supported. <code>false</code> otherwise.
      */
     public static boolean canReadCardWithCamera() {
+        return canReadCardWithCamera(null);
+    }
+
+    /**
+     * Determine if the device supports card scanning.
+     * <br><br>
+     * Same as {@link #canReadCardWithCamera()}, but the result is also remembered across app
+     * launches until the OS, the app or card.io is updated, so the camera only needs to be opened
+     * to check it the first time.
+     *
+     * @param context any {@link Context} of the calling app.
+     * @return <code>true</code> if camera is supported. <code>false</code> otherwise.
+     */
+    public static boolean canReadCardWithCamera(Context context) {
         try {
-            return Util.hardwareSupported();
+            return Util.hardwareSupported(context);
         } catch (CameraUnavailableException e) {
             return false;
         } catch (RuntimeException e) {
@@ -685,6 +764,41 @@ public final class CardIOActivity extends Activity {
         }
     }
 
+    /**
+     * Runs {@link #canReadCardWithCamera(Context)} on a background thread, as it may need to open
+     * the camera.
+     *
+     * @param context any {@link Context} of the calling app.
+     * @return a {@link Future} that resolves to the result of
+     * {@link #canReadCardWithCamera(Context)}.
+     */
+    public static Future<Boolean> canReadCardWithCameraAsync(Context context) {
+        final Context appContext = context.getApplicationContext();
+        FutureTask<Boolean> task = new FutureTask<>(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return canReadCardWithCamera(appContext);
+            }
+        });
+        new Thread(task, "card.io capability check").start();
+        return task;
+    }
+
+    /**
+     * Loads the card.io native libraries and prepares the recognizer on a background thread.
+     * <br><br>
+     * Optional. Call this when the user reaches a screen from which they are likely to scan a card
+     * (e.g. checkout), so the work is not done on the main thread when {@link CardIOActivity} is
+     * started. Repeated calls return the same {@link Future}.
+     *
+     * @return a {@link Future} that resolves to <code>true</code> if the processor supports card
+     * scanning, <code>false</code> otherwise.
+     */
+    public static Future<Boolean> prewarm() {
+        // must not touch CardScanner here, its class initialization loads the native libraries
+        return NativePrewarmer.prewarm();
+    }
+
     /**
      * Returns the String version of this SDK.  Please include the return value of this method in any support requests.
      *
@@ -719,6 +833,48 @@ public final class CardIOActivity extends Activity {
         return result;
     }
 
+    /**
+     * Utility method for reading the scan session metrics
+     *
+     * @param intent - intent received in {@link Activity#onActivityResult(int, int, Intent)}
+     * @return the metrics, or null if the camera was never set up
+     */
+    public static ScanSessionMetrics getScanMetrics(Intent intent) {
+        if (intent == null) {
+            return null;
+        }
+        return intent.getParcelableExtra(EXTRA_SCAN_METRICS);
+    }
+
+    /**
+     * Utility method for locating the flight recording of a scan session
+     *
+     * @param intent - intent received in {@link Activity#onActivityResult(int, int, Intent)}
+     * @return the recording, or null if none is written, see
+     * {@link #EXTRA_FLIGHT_RECORDER_THRESHOLD}. It may still be being written, see
+     * {@link #EXTRA_FLIGHT_RECORDING}.
+     */
+    public static File getFlightRecording(Intent intent) {
+        if (intent == null || !intent.hasExtra(EXTRA_FLIGHT_RECORDING)) {
+            return null;
+        }
+        return new File(intent.getStringExtra(EXTRA_FLIGHT_RECORDING));
+    }
+
+    /**
+     * Utility method for locating the recording of a scan session
+     *
+     * @param intent - intent received in {@link Activity#onActivityResult(int, int, Intent)}
+     * @return the recording, or null if none is written, see {@link #EXTRA_RECORD_SESSION}. It may
+     * still be being written, see {@link #EXTRA_SESSION_RECORDING}.
+     */
+    public static File getSessionRecording(Intent intent) {
+        if (intent == null || !intent.hasExtra(EXTRA_SESSION_RECORDING)) {
+            return null;
+        }
+        return new File(intent.getStringExtra(EXTRA_SESSION_RECORDING));
+    }
+
     // end static
 
     void onFirstFrame() {
@@ -738,6 +894,15 @@ public final class CardIOActivity extends Activity {
     }
 
     void onCardDetected(Bitmap detectedBitmap, DetectionInfo dInfo) {
+        Tracer.begin("cardio:onCardDetected");
+        try {
+            handleCardDetected(detectedBitmap, dInfo);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private void handleCardDetected(Bitmap detectedBitmap, DetectionInfo dInfo) {
         try {
             Vibrator vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
             vibrator.vibrate(VIBRATE_PATTERN, -1);
@@ -767,9 +932,14 @@ public final class CardIOActivity extends Activity {
         Matrix m = new Matrix();
         m.postScale(sf, sf);
 
-        Bitmap scaledCard = Bitmap.createBitmap(detectedBitmap, 0, 0, detectedBitmap.getWidth(),
-                detectedBitmap.getHeight(), m, false);
-        mOverlay.setBitmap(scaledCard);
+        Tracer.begin("cardio:composeCardImage");
+        try {
+            Bitmap scaledCard = Bitmap.createBitmap(detectedBitmap, 0, 0,
+                    detectedBitmap.getWidth(), detectedBitmap.getHeight(), m, false);
+            mOverlay.setBitmap(scaledCard);
+        } finally {
+            Tracer.end();
+        }
 
         if (mDetectOnly) {
             Intent dataIntent = new Intent();
@@ -804,11 +974,16 @@ public final class CardIOActivity extends Activity {
                     Util.writeCapturedCardImageIfNecessary(origIntent, dataIntent, mOverlay);
 
                     if (mOverlay != null) {
-                        mOverlay.markupCard();
-                        if (markedCardImage != null && !markedCardImage.isRecycled()) {
-                            markedCardImage.recycle();
+                        Tracer.begin("cardio:markupCard");
+                        try {
+                            mOverlay.markupCard();
+                            if (markedCardImage != null && !markedCardImage.isRecycled()) {
+                                markedCardImage.recycle();
+                            }
+                            markedCardImage = mOverlay.getCardImage();
+                        } finally {
+                            Tracer.end();
                         }
-                        markedCardImage = mOverlay.getCardImage();
                     }
                     if (mDetectedCard != null) {
                         dataIntent.putExtra(EXTRA_SCAN_RESULT, mDetectedCard);
@@ -1030,11 +1205,45 @@ public final class CardIOActivity extends Activity {
     }
 
     private void setResultAndFinish(final int resultCode, final Intent data) {
-        setResult(resultCode, data);
+        setResult(resultCode, withScanMetrics(data));
         markedCardImage = null;
         finish();
     }
 
+    /**
+     * Adds the metrics of the session to the result. Recordings are written in the background,
+     * their paths are decided here, so this doesn't wait on file IO.
+     */
+    private Intent withScanMetrics(Intent data) {
+        if (mCardScanner == null) {
+            return data;
+        }
+        if (data == null) {
+            data = new Intent();
+        }
+        ScanSessionMetrics metrics = mCardScanner.getSessionMetrics();
+        data.putExtra(EXTRA_SCAN_METRICS, metrics);
+
+        int threshold = getIntent().getIntExtra(EXTRA_FLIGHT_RECORDER_THRESHOLD, 0);
+        boolean slow = metrics.getTimeToResult() > threshold;
+        boolean failed = metrics.getTimeToResult() < 0 && metrics.getFramesDelivered() > 0;
+        if (threshold > 0 && (slow || failed)) {
+            File recording = mCardScanner.writeFlightRecording(
+                    new File(getFilesDir(), FLIGHT_RECORDINGS_DIR), metrics);
+            if (recording != null) {
+                Log.i(Util.PUBLIC_LOG_TAG, "writing flight recording to " + recording);
+                data.putExtra(EXTRA_FLIGHT_RECORDING, recording.getAbsolutePath());
+            }
+        }
+
+        File sessionRecording = mCardScanner.finishSessionRecording();
+        if (sessionRecording != null) {
+            Log.i(Util.PUBLIC_LOG_TAG, "writing session recording to " + sessionRecording);
+            data.putExtra(EXTRA_SESSION_RECORDING, sessionRecording.getAbsolutePath());
+        }
+        return data;
+    }
+
     // for torch test
     public Rect getTorchRect() {
         if (mOverlay == null) {
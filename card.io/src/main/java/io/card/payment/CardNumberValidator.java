@@ -9,6 +9,8 @@ import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import android.text.TextUtils;
 
+import io.card.payment.validation.CardNumbers;
+
 class CardNumberValidator implements Validator {
 
     private String numberString;
@@ -27,7 +29,7 @@ class CardNumberValidator implements Validator {
     @Override
     public void afterTextChanged(Editable source) {
         // TODO document whatever is going on here
-        numberString = StringHelper.getDigitsOnlyString(source.toString());
+        numberString = CardNumbers.digitsOnly(source);
         CardType type = CardType.fromCardNumber(numberString);
 
         if (spacerToDelete > 1) {
@@ -78,7 +80,7 @@ class CardNumberValidator implements Validator {
             return false;
         }
 
-        if (!CreditCardNumber.passesLuhnChecksum(numberString)) {
+        if (!CardNumbers.passesLuhnChecksum(numberString)) {
             return false;
         }
 
@@ -95,7 +97,7 @@ class CardNumberValidator implements Validator {
                                int dend) {
         String updated = new SpannableStringBuilder(dest).replace(dstart, dend, source, start, end)
                 .toString();
-        String updatedDigits = StringHelper.getDigitsOnlyString(updated);
+        String updatedDigits = CardNumbers.digitsOnly(updated);
         CardType type = CardType.fromCardNumber(updatedDigits);
         int maxLength = type.numberLength();
 
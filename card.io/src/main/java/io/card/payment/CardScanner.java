@@ -6,12 +6,12 @@ package io.card.payment;
 
 import android.content.Context;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
 import android.graphics.ImageFormat;
 import android.graphics.Rect;
 import android.hardware.Camera;
 import android.hardware.Camera.Parameters;
-import android.hardware.Camera.Size;
 import android.os.Build;
 import android.util.Log;
 import android.view.Surface;
@@ -21,9 +21,13 @@ import android.view.WindowManager;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.card.payment.ScanSessionMetrics.FrameOutcome;
+import io.card.payment.ScanSessionMetrics.Stage;
 
 /**
  * Encapsulates the core image scanning.
@@ -51,6 +55,30 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
     private static final int CAMERA_CONNECT_TIMEOUT = 5000;
     private static final int CAMERA_CONNECT_RETRY_INTERVAL = 50;
 
+    // older recordings are deleted when a new one is written
+    private static final int MAX_FLIGHT_RECORDINGS = 10;
+
+    // a session recording can take up to a hundred megabytes
+    static final String SESSION_RECORDINGS_DIR = "cardio-sessions";
+    private static final int MAX_SESSION_RECORDINGS = 3;
+
+    // Finishes flight and session recordings after the session ends, so that the activity can
+    // return its result without waiting on file IO. One at a time, so that deleting old recordings
+    // never races with writing a new one.
+    private static final ThreadPoolExecutor sRecordingWriter = new ThreadPoolExecutor(1, 1,
+            10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cardio-recording-writer");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    static {
+        sRecordingWriter.allowCoreThreadTimeOut(true);
+    }
+
     static final int ORIENTATION_PORTRAIT = 1;
 
     // these values MUST match those in dmz_constants.h
@@ -64,10 +92,16 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     public static native boolean nUseX86();
 
+    private static native void nPrewarm();
+
     private native void nSetup(boolean shouldDetectOnly, float minFocusScore);
 
     private native void nSetup(boolean shouldDetectOnly, float minFocusScore, int unBlur);
 
+    private native void nSetLumaOnly(boolean lumaOnly);
+
+    private static native void nSetTraceEnabled(boolean enabled);
+
     private native void nResetAnalytics();
 
     private native void nGetGuideFrame(int orientation, int previewWidth, int previewHeight, Rect r);
@@ -77,6 +111,12 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     private native int nGetNumFramesScanned();
 
+    private native boolean nHasPendingResult();
+
+    private native void nSetPresenceAudit(boolean audit);
+
+    private native void nGetPresenceStats(int[] stats);
+
     private native void nCleanup();
 
     private Bitmap detectedBitmap;
@@ -88,6 +128,7 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
     private boolean mSuppressScan = false;
     private boolean mScanExpiry;
     private int mUnblurDigits = DEFAULT_UNBLUR_DIGITS;
+    private boolean mLumaOnly;
 
     // read by CardIOActivity to set up Preview
     final int mPreviewWidth = 640;
@@ -96,11 +137,23 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
     private int mFrameOrientation = ORIENTATION_PORTRAIT;
 
     private boolean mFirstPreviewFrame = true;
-    private long captureStart;
-    private long mAutoFocusStartedAt;
-    private long mAutoFocusCompletedAt;
+    private final ScanMetricsRecorder mMetrics = new ScanMetricsRecorder();
+    private final FlightRecorder mFlightRecorder = new FlightRecorder();
+    // set when session recording was requested and is allowed
+    private File mSessionRecordingDir;
+    private SessionRecorder mSessionRecorder;
+    private CachedCameraParameters mRecordedParameters;
+    private int mRecordedParametersGeneration;
+    private final AutoFocusScheduler mFocusScheduler = new AutoFocusScheduler();
+    private final ExposureController mExposureController = new ExposureController();
+    private final EdgeDisplayFilter mEdgeDisplayFilter = new EdgeDisplayFilter();
+    private final FrameChangeDetector mFrameChangeDetector = new FrameChangeDetector();
+    private final MotionGate mMotionGate;
+    // only unchanged frames following a frame with this set may be skipped
+    private boolean mLastFrameSkippable;
 
     private Camera mCamera;
+    private CachedCameraParameters mCameraParameters;
     private byte[] mPreviewBuffer;
 
     // accessed by test harness subclass.
@@ -108,11 +161,6 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     private boolean isSurfaceValid;
 
-    private int numManualRefocus;
-    private int numAutoRefocus;
-    private int numManualTorchChange;
-    private int numFramesSkipped;
-
     // ------------------------------------------------------------------------
     // STATIC INITIALIZATION
     // ------------------------------------------------------------------------
@@ -189,17 +237,61 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
         return (!manualFallbackForError && (usesSupportedProcessorArch()));
     }
 
+    /**
+     * Creates the dmz context ahead of the first scan, to be picked up by the next {@link #nSetup}
+     * call. Runs on the background thread of {@link NativePrewarmer}, which is also where class
+     * initialization loads the native libraries.
+     *
+     * @return {@link #processorSupported()}
+     */
+    static boolean prewarmNative() {
+        if (!processorSupported()) {
+            return false;
+        }
+        synchronized (CardScanner.class) {
+            nPrewarm();
+        }
+        Log.d(Util.PUBLIC_LOG_TAG, "card.io native context prewarmed");
+        return true;
+    }
+
     CardScanner(CardIOActivity scanActivity, int currentFrameOrientation) {
         Intent scanIntent = scanActivity.getIntent();
+        Tracer.setEnabled(scanIntent != null
+                && scanIntent.getBooleanExtra(CardIOActivity.EXTRA_ENABLE_TRACING, false));
         if (scanIntent != null) {
             mSuppressScan = scanIntent.getBooleanExtra(CardIOActivity.EXTRA_SUPPRESS_SCAN, false);
             mScanExpiry = scanIntent.getBooleanExtra(CardIOActivity.EXTRA_REQUIRE_EXPIRY, false)
                     && scanIntent.getBooleanExtra(CardIOActivity.EXTRA_SCAN_EXPIRY, true);
             mUnblurDigits = scanIntent.getIntExtra(CardIOActivity.EXTRA_UNBLUR_DIGITS, DEFAULT_UNBLUR_DIGITS);
+
+            // nobody gets to see the card image in color unless it's returned or confirmed
+            boolean showsConfirmation = !mSuppressScan
+                    && !scanIntent.getBooleanExtra(CardIOActivity.EXTRA_SUPPRESS_CONFIRMATION, false);
+            mLumaOnly = !showsConfirmation
+                    && !scanIntent.getBooleanExtra(CardIOActivity.EXTRA_RETURN_CARD_IMAGE, false);
+            mFlightRecorder.setThumbnailsEnabled(scanIntent.getBooleanExtra(
+                    CardIOActivity.EXTRA_FLIGHT_RECORDER_THUMBNAILS, false));
+            if (scanIntent.getBooleanExtra(CardIOActivity.EXTRA_RECORD_SESSION, false)) {
+                // recordings contain card numbers in the clear, keep them out of release builds
+                if ((scanActivity.getApplicationInfo().flags
+                        & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+                    mSessionRecordingDir = new File(scanActivity.getFilesDir(),
+                            SESSION_RECORDINGS_DIR);
+                } else {
+                    Log.w(Util.PUBLIC_LOG_TAG,
+                            "session recording is only available in debuggable apps");
+                }
+            }
         }
         mScanActivityRef = new WeakReference<>(scanActivity);
         mFrameOrientation = currentFrameOrientation;
-        nSetup(mSuppressScan, MIN_FOCUS_SCORE, mUnblurDigits);
+        mMotionGate = new MotionGate(scanActivity);
+        synchronized (CardScanner.class) {
+            nSetup(mSuppressScan, MIN_FOCUS_SCORE, mUnblurDigits);
+            nSetLumaOnly(mLumaOnly);
+            nSetTraceEnabled(Tracer.isEnabled());
+        }
     }
 
     /**
@@ -235,17 +327,20 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     void prepareScanner() {
         mFirstPreviewFrame = true;
-        mAutoFocusStartedAt = 0;
-        mAutoFocusCompletedAt = 0;
-
-        numManualRefocus = 0;
-        numAutoRefocus = 0;
-        numManualTorchChange = 0;
-
-        numFramesSkipped = 0;
+        mFocusScheduler.reset();
+        mEdgeDisplayFilter.reset();
+        mFrameChangeDetector.reset();
+        mLastFrameSkippable = false;
+        mMetrics.reset();
+        mFlightRecorder.reset();
 
         if (useCamera && mCamera == null) {
-            mCamera = connectToCamera(CAMERA_CONNECT_RETRY_INTERVAL, CAMERA_CONNECT_TIMEOUT);
+            Tracer.begin("cardio:openCamera");
+            try {
+                mCamera = connectToCamera(CAMERA_CONNECT_RETRY_INTERVAL, CAMERA_CONNECT_TIMEOUT);
+            } finally {
+                Tracer.end();
+            }
             if (mCamera == null) {
                 Log.e(Util.PUBLIC_LOG_TAG, "prepare scanner couldn't connect to camera!");
                 return;
@@ -253,28 +348,23 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
             setCameraDisplayOrientation(mCamera);
 
-            Camera.Parameters parameters = mCamera.getParameters();
+            mCameraParameters = new CachedCameraParameters(mCamera);
+            mCameraParameters.setPreviewSize(mPreviewWidth, mPreviewHeight);
+            mCameraParameters.commit();
 
-            List<Size> supportedPreviewSizes = parameters.getSupportedPreviewSizes();
-            if (supportedPreviewSizes != null) {
-                Size previewSize = null;
-                for (Size s : supportedPreviewSizes) {
-                    if (s.width == 640 && s.height == 480) {
-                        previewSize = s;
-                        break;
-                    }
-                }
-                if (previewSize == null) {
-                    previewSize = supportedPreviewSizes.get(0);
-
-                    previewSize.width = mPreviewWidth;
-                    previewSize.height = mPreviewHeight;
-                }
+            // committed separately, so a camera that rejects focus or metering areas still gets
+            // its preview size
+            try {
+                Rect frameGuide = getGuideFrame(mFrameOrientation, mPreviewWidth, mPreviewHeight);
+                mFocusScheduler.configure(mCameraParameters, frameGuide, mPreviewWidth,
+                        mPreviewHeight);
+                mExposureController.configure(mCameraParameters, frameGuide, mPreviewWidth,
+                        mPreviewHeight);
+                mCameraParameters.commit();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "could not configure focus and metering: " + e);
             }
-
-            parameters.setPreviewSize(mPreviewWidth, mPreviewHeight);
-
-            mCamera.setParameters(parameters);
+            mFocusScheduler.onConfigured(mCameraParameters.getFocusMode());
         }
 
         if (detectedBitmap == null) {
@@ -283,6 +373,15 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
         }
     }
 
+    /**
+     * Starts a new session without touching the camera: forgets earlier frames and metrics, and
+     * any partially recognized card. Used to replay recorded sessions back to back.
+     */
+    void restartSession() {
+        prepareScanner();
+        nResetAnalytics();
+    }
+
     @SuppressWarnings("deprecation")
     boolean resumeScanning(SurfaceHolder holder) {
         if (mCamera == null) {
@@ -296,8 +395,7 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
         assert holder != null;
 
         if (useCamera && mPreviewBuffer == null) {
-            Camera.Parameters parameters = mCamera.getParameters();
-            int previewFormat = parameters.getPreviewFormat();
+            int previewFormat = mCameraParameters.getPreviewFormat();
             int bytesPerPixel = ImageFormat.getBitsPerPixel(previewFormat) / 8;
             int bufferSize = mPreviewWidth * mPreviewHeight * bytesPerPixel * 3;
 
@@ -315,9 +413,12 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
             makePreviewGo(holder);
         }
 
+        if (useCamera) {
+            mMotionGate.enable();
+        }
+
         // Turn flash off
         setFlashOn(false);
-        captureStart = System.currentTimeMillis();
 
         nResetAnalytics();
 
@@ -326,6 +427,7 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     public void pauseScanning() {
         setFlashOn(false);
+        mMotionGate.disable();
         // Because the Camera object is a shared resource, it's very
         // important to release it when the activity is paused.
         if (mCamera != null) {
@@ -338,6 +440,7 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
             mCamera.setPreviewCallback(null);
             mCamera.release();
             mPreviewBuffer = null;
+            mCameraParameters = null;
             mCamera = null;
         }
     }
@@ -346,7 +449,10 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
         if (mCamera != null) {
             pauseScanning();
         }
-        nCleanup();
+        finishSessionRecording();
+        synchronized (CardScanner.class) {
+            nCleanup();
+        }
 
         mPreviewBuffer = null;
     }
@@ -367,11 +473,17 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
             } catch (IOException e) {
                 return false;
             }
+            Tracer.begin("cardio:startPreview");
             try {
                 mCamera.startPreview();
-                mCamera.autoFocus(this);
+                if (!mFocusScheduler.isContinuous()) {
+                    mFocusScheduler.onSweepStarted(true, System.currentTimeMillis());
+                    mCamera.autoFocus(this);
+                }
             } catch (RuntimeException e) {
                 return false;
+            } finally {
+                Tracer.end();
             }
         }
         return true;
@@ -428,15 +540,31 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
             return;
         }
 
+        Tracer.begin("cardio:onPreviewFrame");
+        try {
+            processPreviewFrame(data, camera);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private void processPreviewFrame(byte[] data, Camera camera) {
+        mMetrics.onFrameDelivered();
+        if (mSessionRecordingDir != null) {
+            recordFrame(data);
+        }
         if (processingInProgress) {
             // return frame buffer to pool
-            numFramesSkipped++;
+            mMetrics.onFrame(FrameOutcome.SKIPPED_BUSY);
             if (camera != null) {
                 camera.addCallbackBuffer(data);
             }
             return;
         }
         processingInProgress = true;
+        long frameStart = System.nanoTime();
+        boolean focusing = mFocusScheduler.isSweeping(System.currentTimeMillis());
+        mFlightRecorder.startFrame(focusing);
 
         // TODO: eliminate this foolishness and measure/layout properly.
         if (mFirstPreviewFrame) {
@@ -445,17 +573,78 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
             mScanActivityRef.get().onFirstFrame();
         }
 
+        // A recognition completed on the pipeline thread is only reported by the next
+        // nScanFrame() call, so no gate may hold that frame back.
+        boolean resultPending = nHasPendingResult();
+
+        if (focusing && !resultPending) {
+            // the lens is moving, this frame is too blurry to be worth recognizing
+            onFrameOutcome(FrameOutcome.SKIPPED_FOCUSING);
+            if (camera != null) {
+                camera.addCallbackBuffer(data);
+            }
+            processingInProgress = false;
+            return;
+        }
+
+        if (!resultPending && mMotionGate.isMoving()) {
+            // motion blurred, and the frames after it will look different anyway
+            onFrameOutcome(FrameOutcome.SKIPPED_MOVING);
+            if (camera != null) {
+                camera.addCallbackBuffer(data);
+            }
+            processingInProgress = false;
+            return;
+        }
+
+        Rect guideFrame = getGuideFrame(mFrameOrientation, mPreviewWidth, mPreviewHeight);
+        if (!resultPending && skipUnchangedFrame(data, guideFrame)) {
+            // scanning it again would give the same result as the last frame
+            onFrameOutcome(FrameOutcome.SKIPPED_UNCHANGED);
+            if (camera != null) {
+                camera.addCallbackBuffer(data);
+            }
+            processingInProgress = false;
+            return;
+        }
+        mFlightRecorder.captureThumbnail(data, mPreviewWidth, mPreviewHeight, guideFrame);
+
         DetectionInfo dInfo = new DetectionInfo();
 
         /** pika **/
-        nScanFrame(data, mPreviewWidth, mPreviewHeight, mFrameOrientation, dInfo, detectedBitmap, mScanExpiry);
+        long stageStart = System.nanoTime();
+        scanFrame(data, dInfo);
+        onStageCompleted(Stage.RECOGNITION, stageStart);
+        mFlightRecorder.setDetection(dInfo);
 
         boolean sufficientFocus = (dInfo.focusScore >= MIN_FOCUS_SCORE);
+        mLastFrameSkippable = FrameChangeDetector.canSkipAfter(dInfo, sufficientFocus);
 
+        FrameOutcome outcome;
+        if (dInfo.cardAbsent) {
+            outcome = FrameOutcome.NO_CARD;
+        } else {
+            outcome = sufficientFocus ? FrameOutcome.IN_FOCUS : FrameOutcome.OUT_OF_FOCUS;
+            mMetrics.onFocusScore(dInfo.focusScore);
+        }
+
+        boolean cardDetected = false;
         if (!sufficientFocus) {
             triggerAutoFocus(false);
-        } else if (dInfo.predicted() || (mSuppressScan && dInfo.detected())) {
-            mScanActivityRef.get().onCardDetected(detectedBitmap, dInfo);
+        } else {
+            mFocusScheduler.onFocusSufficient();
+            updateExposureLock(dInfo.detected());
+            if (dInfo.detected()) {
+                mMetrics.onEdgesDetected();
+            }
+            cardDetected = dInfo.predicted() || (mSuppressScan && dInfo.detected());
+        }
+        onStageCompleted(Stage.FRAME, frameStart);
+        onFrameOutcome(outcome);
+
+        if (cardDetected) {
+            mMetrics.onResult();
+            onCardDetected(dInfo);
         }
         // give the image buffer back to the camera, AFTER we're done reading
         // the image.
@@ -466,8 +655,89 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
 
     }
 
+    private boolean skipUnchangedFrame(byte[] data, Rect guideFrame) {
+        long stageStart = System.nanoTime();
+        boolean unchanged = mFrameChangeDetector.shouldSkip(data, mPreviewWidth, mPreviewHeight,
+                guideFrame, mLastFrameSkippable);
+        onStageCompleted(Stage.CHANGE_DETECTION, stageStart);
+        return unchanged;
+    }
+
+    /**
+     * Reports a detected card to the activity. Overridden by test harness subclasses.
+     */
+    void onCardDetected(DetectionInfo dInfo) {
+        mScanActivityRef.get().onCardDetected(detectedBitmap, dInfo);
+    }
+
+    private void onStageCompleted(Stage stage, long startNanos) {
+        mFlightRecorder.setStageMicros(stage, mMetrics.onStageCompleted(stage, startNanos));
+    }
+
+    private void onFrameOutcome(FrameOutcome outcome) {
+        mMetrics.onFrame(outcome);
+        mFlightRecorder.endFrame(outcome);
+    }
+
+    /**
+     * Runs a single frame through the native scanner, without any of the frame gating done in
+     * {@link #onPreviewFrame(byte[], Camera)}.
+     */
+    void scanFrame(byte[] data, DetectionInfo dInfo) {
+        nScanFrame(data, mPreviewWidth, mPreviewHeight, mFrameOrientation, dInfo, detectedBitmap,
+                mScanExpiry);
+    }
+
+    /**
+     * In luma-only mode the chroma planes of preview frames are never read, and the card image is
+     * grayscale. It is on by default when the card image is neither returned to the host app nor
+     * shown on the confirmation screen.
+     */
+    void setLumaOnly(boolean lumaOnly) {
+        mLumaOnly = lumaOnly;
+        nSetLumaOnly(lumaOnly);
+    }
+
+    boolean isLumaOnly() {
+        return mLumaOnly;
+    }
+
+    /**
+     * Frames rejected by the native fast card presence test normally skip edge detection, except
+     * for every few consecutive ones. In audit mode all of them go through edge detection, so
+     * {@link #getPresenceStats()} shows how many frames the test rejects although edges are found.
+     * This is for benchmarks only: it costs the time the test saves.
+     */
+    void setPresenceAudit(boolean audit) {
+        nSetPresenceAudit(audit);
+    }
+
+    /**
+     * @return the counts since the session started of frames rejected by the fast card presence
+     * test, of those that still went through edge detection, and of those that had edges found.
+     */
+    int[] getPresenceStats() {
+        int[] stats = new int[3];
+        if (processorSupported()) {
+            nGetPresenceStats(stats);
+        }
+        return stats;
+    }
+
+    private void updateExposureLock(boolean cardDetected) {
+        if (!useCamera || mCameraParameters == null) {
+            return;
+        }
+        mExposureController.onFrame(mCameraParameters, cardDetected);
+        try {
+            mCameraParameters.commit();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "could not update exposure lock: " + e);
+        }
+    }
+
     void onEdgeUpdate(DetectionInfo dInfo) {
-        mScanActivityRef.get().onEdgeUpdate(dInfo);
+        mScanActivityRef.get().onEdgeUpdate(mEdgeDisplayFilter.filter(dInfo));
     }
 
     Rect getGuideFrame(int orientation, int previewWidth, int previewHeight) {
@@ -495,18 +765,92 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
         return mFrameOrientation;
     }
 
-    Map<String, Object> getAnalytics() {
-        HashMap<String, Object> analytics = new HashMap<String, Object>(11);
+    /**
+     * @return the metrics of the session so far.
+     */
+    ScanSessionMetrics getSessionMetrics() {
+        return mMetrics.snapshot(processorSupported() ? nGetNumFramesScanned() : 0);
+    }
 
-        analytics.put("num_frames_scanned", Integer.valueOf(nGetNumFramesScanned()));
-        analytics.put("num_frames_skipped", Integer.valueOf(numFramesSkipped));
+    /**
+     * Writes the flight recording of the session so far to a new file in the given directory, see
+     * {@link FlightRecorder#writeTo(java.io.Writer, ScanSessionMetrics)}. The frames are copied
+     * right away, the file is written in the background and only shows up once it is complete.
+     *
+     * @return the file, or null if nothing was recorded
+     */
+    File writeFlightRecording(File dir, final ScanSessionMetrics metrics) {
+        if (mFlightRecorder.size() == 0) {
+            return null;
+        }
+        final File file = new File(dir, System.currentTimeMillis() + ".csv");
+        final FlightRecorder recording = mFlightRecorder.snapshot();
+        sRecordingWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    recording.writeToFile(file, metrics, MAX_FLIGHT_RECORDINGS);
+                } catch (IOException e) {
+                    Log.w(TAG, "could not write flight recording: " + e);
+                }
+            }
+        });
+        return file;
+    }
 
-        analytics.put("elapsed_time", Double.valueOf((System.currentTimeMillis() - captureStart) / 1000));
+    /**
+     * Hands the frame to the session recorder, starting it on the first frame. Camera parameters
+     * are recorded whenever they were committed since the last frame.
+     */
+    private void recordFrame(byte[] data) {
+        if (mSessionRecorder == null) {
+            try {
+                if (!mSessionRecordingDir.isDirectory() && !mSessionRecordingDir.mkdirs()) {
+                    throw new IOException("could not create " + mSessionRecordingDir);
+                }
+                Util.deleteOldestFiles(mSessionRecordingDir, MAX_SESSION_RECORDINGS - 1);
+                File file = new File(mSessionRecordingDir, System.currentTimeMillis() + ".cior");
+                mSessionRecorder = new SessionRecorder(file, mPreviewWidth, mPreviewHeight,
+                        ImageFormat.NV21);
+            } catch (IOException e) {
+                Log.w(TAG, "could not start session recording: " + e);
+                mSessionRecordingDir = null;
+                return;
+            }
+        }
 
-        analytics.put("num_manual_refocusings", Integer.valueOf(numManualRefocus));
-        analytics.put("num_auto_triggered_refocusings", Integer.valueOf(numAutoRefocus));
-        analytics.put("num_manual_torch_changes", Integer.valueOf(numManualTorchChange));
-        return analytics;
+        if (useCamera && mCameraParameters != null && (mRecordedParameters != mCameraParameters
+                || mRecordedParametersGeneration != mCameraParameters.getGeneration())) {
+            mRecordedParameters = mCameraParameters;
+            mRecordedParametersGeneration = mCameraParameters.getGeneration();
+            mSessionRecorder.onCameraParameters(mCameraParameters.flatten());
+        }
+        mSessionRecorder.onFrame(data, mFrameOrientation);
+    }
+
+    /**
+     * Stops recording frames. Later frames are not recorded. The frames already taken are written
+     * in the background, and the recording only shows up once it is complete.
+     *
+     * @return the recording, or null if session recording is off
+     */
+    File finishSessionRecording() {
+        mSessionRecordingDir = null;
+        if (mSessionRecorder == null) {
+            return null;
+        }
+        final SessionRecorder recorder = mSessionRecorder;
+        mSessionRecorder = null;
+        mRecordedParameters = null;
+        sRecordingWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (recorder.close() == null) {
+                    Log.w(TAG, "could not write session recording " + recorder.getFile());
+                }
+            }
+        });
+        return recorder.getFile();
     }
 
     // ------------------------------------------------------------------------
@@ -520,14 +864,24 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
      */
     @Override
     public void onAutoFocus(boolean success, Camera camera) {
-        mAutoFocusCompletedAt = System.currentTimeMillis();
+        mFocusScheduler.onSweepCompleted(System.currentTimeMillis());
+        // the lens moved, the next frame has to be looked at
+        mFrameChangeDetector.reset();
+        if (mFocusScheduler.isContinuous() && camera != null) {
+            // autoFocus() locks the lens in continuous modes, hand control back to the camera
+            try {
+                camera.cancelAutoFocus();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "could not resume continuous focus: " + e);
+            }
+        }
     }
 
     /**
      * True if autoFocus is in progress
      */
     boolean isAutoFocusing() {
-        return mAutoFocusCompletedAt < mAutoFocusStartedAt;
+        return mFocusScheduler.isSweeping(System.currentTimeMillis());
     }
 
     void toggleFlash() {
@@ -544,16 +898,21 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
      * @param isManual callback for when autofocus is complete
      */
     void triggerAutoFocus(boolean isManual) {
-        if (useCamera && !isAutoFocusing()) {
+        if (useCamera) {
+            long now = System.currentTimeMillis();
+            if (!mFocusScheduler.shouldSweep(isManual, now)) {
+                return;
+            }
+            if (!isManual && mMotionGate.isMoving()) {
+                // wait for the device to settle, the scene will have changed by the time we focus
+                return;
+            }
             try {
-                mAutoFocusStartedAt = System.currentTimeMillis();
+                mFocusScheduler.onSweepStarted(isManual, now);
                 mCamera.autoFocus(this);
-                if (isManual) {
-                    numManualRefocus++;
-                } else {
-                    numAutoRefocus++;
-                }
+                mMetrics.onAutoFocus(isManual);
             } catch (RuntimeException e) {
+                mFocusScheduler.onSweepCompleted(now);
                 Log.w(TAG, "could not trigger auto focus: " + e);
             }
         }
@@ -566,11 +925,10 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
      */
 
     public boolean isFlashOn() {
-        if (!useCamera) {
+        if (!useCamera || mCameraParameters == null) {
             return false;
         }
-        Camera.Parameters params = mCamera.getParameters();
-        return params.getFlashMode().equals(Parameters.FLASH_MODE_TORCH);
+        return Parameters.FLASH_MODE_TORCH.equals(mCameraParameters.getFlashMode());
     }
 
     /**
@@ -583,11 +941,17 @@ class CardScanner implements Camera.PreviewCallback, Camera.AutoFocusCallback,
     public boolean setFlashOn(boolean b) {
         if (mCamera != null) {
             try {
-                Camera.Parameters params = mCamera.getParameters();
-                params.setFlashMode(b ? Parameters.FLASH_MODE_TORCH : Parameters.FLASH_MODE_OFF);
-                mCamera.setParameters(params);
+                // compare against the exact mode, so off also replaces e.g. auto or red-eye
+                String mode = b ? Parameters.FLASH_MODE_TORCH : Parameters.FLASH_MODE_OFF;
+                if (mode.equals(mCameraParameters.getFlashMode())) {
+                    return true;
+                }
+                if (!mCameraParameters.setFlashMode(mode)) {
+                    return false;
+                }
+                mCameraParameters.commit();
 
-                numManualTorchChange++;
+                mMetrics.onTorchChange();
 
                 return true;
             } catch (RuntimeException e) {
@@ -7,19 +7,17 @@ package io.card.payment;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.text.TextUtils;
-import android.util.Pair;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map.Entry;
 
 import io.card.payment.i18n.LocalizedStrings;
 import io.card.payment.i18n.StringKey;
+import io.card.payment.validation.CardBrand;
 
 /**
  * Enumerates each supported card type. see http://en.wikipedia.org/wiki/Bank_card_number for more
  * details.
+ * <br><br>
+ * The number rules live in {@link CardBrand}, which has the same constants and doesn't depend on
+ * Android.
  *
  * @version 1.0
  */
@@ -66,7 +64,17 @@ public enum CardType {
 
     public final String name;
 
-    private static int minDigits = 1;
+    // indexed by CardBrand ordinal and by CardType ordinal, respectively
+    private static final CardType[] BY_BRAND = new CardType[CardBrand.values().length];
+    private static final CardBrand[] BRANDS = new CardBrand[CardBrand.values().length];
+
+    static {
+        for (CardBrand brand : CardBrand.values()) {
+            CardType type = CardType.valueOf(brand.name());
+            BY_BRAND[brand.ordinal()] = type;
+            BRANDS[type.ordinal()] = brand;
+        }
+    }
 
     private CardType(String name) {
         this.name = name;
@@ -112,99 +120,27 @@ public enum CardType {
      * @return 15 for AmEx, -1 for unknown, 16 for others.
      */
     public int numberLength() {
-        int result;
-        switch (this) {
-            case AMEX:
-                result = 15;
-                break;
-            case JCB:
-            case MASTERCARD:
-            case MAESTRO:
-            case VISA:
-            case DISCOVER:
-                result = 16;
-                break;
-            case DINERSCLUB:
-                result = 14;
-                break;
-            case INSUFFICIENT_DIGITS:
-                // this represents the maximum number of digits before we can know the card type
-                result = minDigits;
-                break;
-            case UNKNOWN:
-            default:
-                result = -1;
-                break;
-        }
-        return result;
+        return brand().numberLength();
     }
 
     /**
      * @return 4 for Amex, 3 for others, -1 for unknown
      */
     public int cvvLength() {
-        int result;
-        switch (this) {
-            case AMEX:
-                result = 4;
-                break;
-            case JCB:
-            case MASTERCARD:
-            case MAESTRO:
-            case VISA:
-            case DISCOVER:
-            case DINERSCLUB:
-                result = 3;
-                break;
-            case UNKNOWN:
-            default:
-                result = -1;
-                break;
-        }
-
-        return result;
+        return brand().cvvLength();
     }
 
     /**
      * Returns the {@link Bitmap} of the card logo (e.g. Visa, MC, etc.), if known. Otherwise, returns null.
      * <br><br>
      * Returned bitmap is suitable for display with a masked card number, for example, to indicate a user's chosen
-     * card.
+     * card. Each call decodes a new bitmap, use {@link CardTypeIcons} to show icons repeatedly.
      *
      * @param context The application context for retrieving the image density
      * @return the bitmap icon of the card for display
      */
     public Bitmap imageBitmap(Context context) {
-        int cardImageResource = -1;
-        switch (this) {
-            case AMEX: {
-                cardImageResource = R.drawable.cio_ic_amex;
-                break;
-            }
-            case VISA: {
-                cardImageResource = R.drawable.cio_ic_visa;
-                break;
-            }
-            case MASTERCARD: {
-                cardImageResource = R.drawable.cio_ic_mastercard;
-                break;
-            }
-            case DISCOVER:
-            case DINERSCLUB: {
-                cardImageResource = R.drawable.cio_ic_discover;
-                break;
-            }
-            case JCB: {
-                cardImageResource = R.drawable.cio_ic_jcb;
-                break;
-            }
-            default: {
-                // do not use generic image by default, if it's not one of the above, it's not
-                // valid, or it's maestro
-                break;
-            }
-        }
-
+        int cardImageResource = imageResource();
         if (cardImageResource != -1) {
             return BitmapFactory.decodeResource(context.getResources(), cardImageResource);
         }
@@ -213,76 +149,26 @@ public enum CardType {
     }
 
     /**
-     * Determine if a number matches a prefix interval
-     *
-     * @param number credit card number
-     * @param intervalStart prefix (e.g. "4") or prefix interval start (e.g. "51")
-     * @param intervalEnd prefix interval end (e.g. "55") or null for non-intervals
-     * @return -1 for insufficient digits, 0 for no, 1 for yes.
+     * @return the drawable resource of the card logo, or -1 if there is none.
      */
-    private static boolean isNumberInInterval(String number, String intervalStart,
-                                              String intervalEnd) {
-        int numCompareStart = Math.min(number.length(), intervalStart.length());
-        int numCompareEnd = Math.min(number.length(), intervalEnd.length());
-
-        if (Integer.parseInt(number.substring(0, numCompareStart)) < Integer.parseInt(intervalStart
-                .substring(0, numCompareStart))) {
-            // number is too low
-            return false;
-        } else if (Integer.parseInt(number.substring(0, numCompareEnd)) > Integer
-                .parseInt(intervalEnd.substring(0, numCompareEnd))) {
-            // number is too high
-            return false;
-        }
-
-        return true;
-    }
-
-    private static HashMap<Pair<String, String>, CardType> intervalLookup;
-
-    static {
-        // initialize
-        intervalLookup = new HashMap<>();
-        intervalLookup.put(getNewPair("2221", "2720"), CardType.MASTERCARD);    // MasterCard 2-series
-        intervalLookup.put(getNewPair("300", "305"), CardType.DINERSCLUB);      // Diners Club (Discover)
-        intervalLookup.put(getNewPair("309", null), CardType.DINERSCLUB);       // Diners Club (Discover)
-        intervalLookup.put(getNewPair("34", null), CardType.AMEX);              // AmEx
-        intervalLookup.put(getNewPair("3528", "3589"), CardType.JCB);           // JCB
-        intervalLookup.put(getNewPair("36", null), CardType.DINERSCLUB);        // Diners Club (Discover)
-        intervalLookup.put(getNewPair("37", null), CardType.AMEX);              // AmEx
-        intervalLookup.put(getNewPair("38", "39"), CardType.DINERSCLUB);        // Diners Club (Discover)
-        intervalLookup.put(getNewPair("4", null), CardType.VISA);               // Visa
-        intervalLookup.put(getNewPair("50", null), CardType.MAESTRO);           // Maestro
-        intervalLookup.put(getNewPair("51", "55"), CardType.MASTERCARD);        // MasterCard
-        intervalLookup.put(getNewPair("56", "59"), CardType.MAESTRO);           // Maestro
-        intervalLookup.put(getNewPair("6011", null), CardType.DISCOVER);        // Discover
-        intervalLookup.put(getNewPair("61", null), CardType.MAESTRO);           // Maestro
-        intervalLookup.put(getNewPair("62", null), CardType.DISCOVER);          // China UnionPay (Discover)
-        intervalLookup.put(getNewPair("63", null), CardType.MAESTRO);           // Maestro
-        intervalLookup.put(getNewPair("644", "649"), CardType.DISCOVER);        // Discover
-        intervalLookup.put(getNewPair("65", null), CardType.DISCOVER);          // Discover
-        intervalLookup.put(getNewPair("66", "69"), CardType.MAESTRO);           // Maestro
-        intervalLookup.put(getNewPair("88", null), CardType.DISCOVER);          // China UnionPay (Discover)
-
-        for (Entry<Pair<String, String>, CardType> entry : getIntervalLookup().entrySet()) {
-            minDigits = Math.max(minDigits, entry.getKey().first.length());
-            if (entry.getKey().second != null) {
-                minDigits = Math.max(minDigits, entry.getKey().second.length());
-            }
-        }
-    }
-
-    private static HashMap<Pair<String, String>, CardType> getIntervalLookup() {
-        return intervalLookup;
-    }
-
-    private static Pair<String, String> getNewPair(String intervalStart, String intervalEnd) {
-        if (intervalEnd == null) {
-            // set intervalEnd to intervalStart before creating the Pair object, because apparently
-            // Pair.hashCode() can't handle nulls on some devices/versions. WTF.
-            intervalEnd = intervalStart;
+    int imageResource() {
+        switch (this) {
+            case AMEX:
+                return R.drawable.cio_ic_amex;
+            case VISA:
+                return R.drawable.cio_ic_visa;
+            case MASTERCARD:
+                return R.drawable.cio_ic_mastercard;
+            case DISCOVER:
+            case DINERSCLUB:
+                return R.drawable.cio_ic_discover;
+            case JCB:
+                return R.drawable.cio_ic_jcb;
+            default:
+                // do not use generic image by default, if it's not one of the above, it's not
+                // valid, or it's maestro
+                return -1;
         }
-        return new Pair<String, String>(intervalStart, intervalEnd);
     }
 
     /**
@@ -316,25 +202,20 @@ public enum CardType {
      * @return the inferred card type
      */
     public static CardType fromCardNumber(String numStr) {
-        if (TextUtils.isEmpty(numStr)) {
-            return CardType.UNKNOWN;
-        }
+        return fromBrand(CardBrand.fromCardNumber(numStr));
+    }
 
-        HashSet<CardType> possibleCardTypes = new HashSet<CardType>();
-        for (Entry<Pair<String, String>, CardType> entry : getIntervalLookup().entrySet()) {
-            boolean isPossibleCard = isNumberInInterval(numStr, entry.getKey().first,
-                    entry.getKey().second);
-            if (isPossibleCard) {
-                possibleCardTypes.add(entry.getValue());
-            }
-        }
+    /**
+     * @return the card type of the given brand
+     */
+    public static CardType fromBrand(CardBrand brand) {
+        return BY_BRAND[brand.ordinal()];
+    }
 
-        if (possibleCardTypes.size() > 1) {
-            return CardType.INSUFFICIENT_DIGITS;
-        } else if (possibleCardTypes.size() == 1) {
-            return possibleCardTypes.iterator().next();
-        } else {
-            return CardType.UNKNOWN;
-        }
+    /**
+     * @return the brand of this card type
+     */
+    public CardBrand brand() {
+        return BRANDS[ordinal()];
     }
 }
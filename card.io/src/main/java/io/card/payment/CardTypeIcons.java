@@ -0,0 +1,130 @@
+package io.card.payment;
+
+/* CardTypeIcons.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.Log;
+import android.util.LruCache;
+
+/**
+ * Shared cache of card brand icons (e.g. Visa, MC, etc.), decoded for the device density and
+ * optionally pre-scaled to a target height.
+ * <br><br>
+ * Use this instead of {@link CardType#imageBitmap(Context)} when icons are shown repeatedly, for
+ * example in each row of a list of saved cards. The returned bitmaps are shared between all
+ * callers, so they must not be modified or recycled.
+ */
+public final class CardTypeIcons {
+    private static final String TAG = CardTypeIcons.class.getSimpleName();
+
+    private static final int MAX_CACHE_BYTES = 1024 * 1024;
+
+    // Build.VERSION_CODES.O, which isn't in the SDK we compile against
+    private static final int HARDWARE_BITMAPS_MIN_SDK = 26;
+
+    private static final LruCache<String, Bitmap> sCache =
+            new LruCache<String, Bitmap>(MAX_CACHE_BYTES) {
+                @Override
+                protected int sizeOf(String key, Bitmap bitmap) {
+                    return bitmap.getByteCount();
+                }
+            };
+
+    private static boolean sUseHardwareBitmaps;
+
+    private CardTypeIcons() {
+    }
+
+    /**
+     * Returns the icon of the given card type at its natural size for the device density.
+     *
+     * @param context any context, used to access resources
+     * @param cardType the card type
+     * @return the shared icon, or <code>null</code> if there is no icon for this card type
+     */
+    public static Bitmap getIcon(Context context, CardType cardType) {
+        return getIcon(context, cardType, 0);
+    }
+
+    /**
+     * Returns the icon of the given card type, scaled to the given height while keeping its aspect
+     * ratio.
+     *
+     * @param context any context, used to access resources
+     * @param cardType the card type
+     * @param heightPx the height of the icon in pixels, or 0 for its natural size
+     * @return the shared icon, or <code>null</code> if there is no icon for this card type
+     */
+    public static Bitmap getIcon(Context context, CardType cardType, int heightPx) {
+        int resource = cardType.imageResource();
+        if (resource == -1) {
+            return null;
+        }
+
+        String key = cardType.name() + ":" + heightPx;
+        Bitmap icon = sCache.get(key);
+        if (icon != null) {
+            return icon;
+        }
+
+        icon = BitmapFactory.decodeResource(context.getResources(), resource);
+        if (icon == null) {
+            return null;
+        }
+        if (heightPx > 0 && heightPx != icon.getHeight()) {
+            int widthPx = Math.max(1, icon.getWidth() * heightPx / icon.getHeight());
+            Bitmap scaled = Bitmap.createScaledBitmap(icon, widthPx, heightPx, true);
+            if (scaled != icon) {
+                icon.recycle();
+            }
+            icon = scaled;
+        }
+        icon = toHardwareBitmapIfEnabled(icon);
+
+        sCache.put(key, icon);
+        return icon;
+    }
+
+    /**
+     * Stores icons as hardware bitmaps on Android 8.0 and later. Hardware bitmaps live in graphics
+     * memory only and draw faster, but their pixels can't be read. Has no effect on older
+     * versions. Off by default. Changing it clears the cache.
+     *
+     * @param useHardwareBitmaps whether to use hardware bitmaps
+     */
+    public static synchronized void setUseHardwareBitmaps(boolean useHardwareBitmaps) {
+        if (sUseHardwareBitmaps != useHardwareBitmaps) {
+            sUseHardwareBitmaps = useHardwareBitmaps;
+            sCache.evictAll();
+        }
+    }
+
+    /**
+     * Drops all cached icons, for example in response to
+     * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}.
+     */
+    public static void clear() {
+        sCache.evictAll();
+    }
+
+    private static synchronized Bitmap toHardwareBitmapIfEnabled(Bitmap icon) {
+        if (!sUseHardwareBitmaps || Build.VERSION.SDK_INT < HARDWARE_BITMAPS_MIN_SDK) {
+            return icon;
+        }
+        try {
+            Bitmap hardware = icon.copy(Bitmap.Config.valueOf("HARDWARE"), false);
+            if (hardware != null) {
+                icon.recycle();
+                return hardware;
+            }
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "hardware bitmaps unavailable", e);
+        }
+        return icon;
+    }
+}
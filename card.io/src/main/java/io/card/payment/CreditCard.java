@@ -9,6 +9,9 @@ import android.os.Parcelable;
 
 import java.util.UUID;
 
+import io.card.payment.validation.CardNumbers;
+import io.card.payment.validation.ExpiryDates;
+
 /**
  * Describes a credit card.
  *
@@ -19,7 +22,7 @@ public class CreditCard implements Parcelable {
     /**
      * Number of years into the future that a card expiration date is considered to be valid.
      */
-    public static final int EXPIRY_MAX_FUTURE_YEARS = 15;
+    public static final int EXPIRY_MAX_FUTURE_YEARS = ExpiryDates.MAX_FUTURE_YEARS;
 
     private static final String TAG = CreditCard.class.getSimpleName();
 
@@ -142,8 +145,8 @@ public class CreditCard implements Parcelable {
                         '\u2022');
             }
             redacted += getLastFourDigitsOfCardNumber();
-            return CreditCardNumber.formatString(redacted, false,
-                    CardType.fromCardNumber(cardNumber));
+            return CardNumbers.formatString(redacted, false,
+                    CardType.fromCardNumber(cardNumber).brand());
         } else {
             return "";
         }
@@ -160,14 +163,14 @@ public class CreditCard implements Parcelable {
      * @return A string suitable for display, with spaces inserted for readability.
      */
     public String getFormattedCardNumber() {
-        return CreditCardNumber.formatString(cardNumber);
+        return CardNumbers.formatString(cardNumber);
     }
 
     /**
      * @return <code>true</code> indicates a current, valid date.
      */
     public boolean isExpiryValid() {
-        return CreditCardNumber.isDateValid(expiryMonth, expiryYear);
+        return ExpiryDates.isValid(expiryMonth, expiryYear);
     }
 
     /**
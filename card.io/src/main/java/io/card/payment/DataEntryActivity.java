@@ -6,8 +6,11 @@ package io.card.payment;
 
 import android.app.Activity;
 import android.content.Intent;
+import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.os.Build;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.InputFilter;
@@ -64,6 +67,7 @@ public final class DataEntryActivity extends Activity implements TextWatcher {
     private TextView activityTitleTextView;
     private EditText numberEdit;
     private Validator numberValidator;
+    private CardType numberCardType;
     private EditText expiryEdit;
     private Validator expiryValidator;
     private EditText cvvEdit;
@@ -504,6 +508,8 @@ public final class DataEntryActivity extends Activity implements TextWatcher {
     public void afterTextChanged(Editable et) {
 
         if (numberEdit != null && et == numberEdit.getText()) {
+            updateCardTypeIcon();
+
             if (numberValidator.hasFullLength()) {
                 if (!numberValidator.isValid()) {
                     numberEdit.setTextColor(Appearance.TEXT_COLOR_ERROR);
@@ -569,6 +575,29 @@ public final class DataEntryActivity extends Activity implements TextWatcher {
         this.validateAndEnableDoneButtonIfValid();
     }
 
+    /**
+     * Shows the brand icon of the card number typed so far at the end of the number field.
+     */
+    private void updateCardTypeIcon() {
+        CardType type = CardType.fromCardNumber(numberValidator.getValue());
+        if (type == numberCardType) {
+            return;
+        }
+        numberCardType = type;
+
+        Drawable icon = null;
+        Bitmap bitmap = CardTypeIcons.getIcon(this, type, Math.round(numberEdit.getTextSize()));
+        if (bitmap != null) {
+            icon = new BitmapDrawable(getResources(), bitmap);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            // at the end of the field, so on the left in right-to-left layouts
+            numberEdit.setCompoundDrawablesRelativeWithIntrinsicBounds(null, null, icon, null);
+        } else {
+            numberEdit.setCompoundDrawablesWithIntrinsicBounds(null, null, icon, null);
+        }
+    }
+
     private void setDefaultColor(EditText editText) {
         if (useApplicationTheme) {
             editText.setTextColor(defaultTextColor);
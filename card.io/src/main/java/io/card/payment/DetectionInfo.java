@@ -16,6 +16,8 @@ class DetectionInfo {
     public boolean leftEdge;
     public boolean rightEdge;
     public float focusScore;
+    // set when the fast presence test ruled out a card and edge detection was skipped
+    public boolean cardAbsent;
     public int[] prediction;
     public int expiry_month;
     public int expiry_year;
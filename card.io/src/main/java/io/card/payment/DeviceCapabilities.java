@@ -0,0 +1,185 @@
+package io.card.payment;
+
+/* DeviceCapabilities.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.hardware.Camera;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.List;
+
+/**
+ * The result of probing the back camera for scanning support.
+ * <p/>
+ * Probing requires opening the camera, which is slow on many devices, so the result is kept in
+ * memory for the process and persisted in the app's shared preferences. The persisted copy is
+ * keyed by the build fingerprint, the host app version and the card.io version, so an OS update
+ * or a new release of either causes the device to be probed again.
+ * <p/>
+ * Processor support is not part of this: it depends on whether the native libraries loaded in this
+ * process, see {@link CardScanner#processorSupported()}, and a load failure must not outlive it.
+ */
+class DeviceCapabilities {
+    private static final String PREFS_NAME = "io.card.payment.deviceCapabilities";
+
+    private static final String KEY_CACHE_KEY = "cacheKey";
+    private static final String KEY_CAMERA_PRESENT = "cameraPresent";
+    private static final String KEY_PREVIEW_SIZES = "previewSizes";
+    private static final String KEY_TORCH_SUPPORTED = "torchSupported";
+    private static final String KEY_PREVIEW_FPS_RANGES = "previewFpsRanges";
+
+    private static DeviceCapabilities sCapabilities;
+
+    final boolean cameraPresent;
+    final boolean torchSupported;
+    // "WxH" entries separated by ';'
+    final String previewSizes;
+    // "min-max" entries separated by ';', in fps * 1000 as reported by the camera
+    final String previewFpsRanges;
+
+    private DeviceCapabilities(boolean cameraPresent, boolean torchSupported, String previewSizes,
+                               String previewFpsRanges) {
+        this.cameraPresent = cameraPresent;
+        this.torchSupported = torchSupported;
+        this.previewSizes = previewSizes;
+        this.previewFpsRanges = previewFpsRanges;
+    }
+
+    boolean supportsPreviewSize(int width, int height) {
+        String size = width + "x" + height;
+        for (String s : previewSizes.split(";")) {
+            if (s.equals(size)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the capabilities of this device, probing the camera only if neither the process nor
+     * the persisted cache has a result for the current build.
+     *
+     * @param context used for the persisted cache. May be <code>null</code>, in which case only
+     *                the in-process cache is used.
+     * @return the capabilities, or <code>null</code> if the camera could not be opened on
+     * Android 6.0+, which usually means the camera permission has not been granted yet.
+     * @throws CameraUnavailableException if the camera could not be opened before Android 6.0
+     */
+    static synchronized DeviceCapabilities get(Context context) {
+        if (sCapabilities != null) {
+            return sCapabilities;
+        }
+
+        String cacheKey = null;
+        SharedPreferences prefs = null;
+        if (context != null) {
+            cacheKey = getCacheKey(context);
+            prefs = context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            sCapabilities = load(prefs, cacheKey);
+            if (sCapabilities != null) {
+                return sCapabilities;
+            }
+        }
+
+        DeviceCapabilities probed = probe();
+        if (probed != null) {
+            sCapabilities = probed;
+            if (prefs != null) {
+                probed.save(prefs, cacheKey);
+            }
+        }
+        return probed;
+    }
+
+    private static DeviceCapabilities load(SharedPreferences prefs, String cacheKey) {
+        if (!cacheKey.equals(prefs.getString(KEY_CACHE_KEY, null))) {
+            return null;
+        }
+        return new DeviceCapabilities(
+                prefs.getBoolean(KEY_CAMERA_PRESENT, false),
+                prefs.getBoolean(KEY_TORCH_SUPPORTED, false),
+                prefs.getString(KEY_PREVIEW_SIZES, ""),
+                prefs.getString(KEY_PREVIEW_FPS_RANGES, ""));
+    }
+
+    private void save(SharedPreferences prefs, String cacheKey) {
+        prefs.edit()
+                .putString(KEY_CACHE_KEY, cacheKey)
+                .putBoolean(KEY_CAMERA_PRESENT, cameraPresent)
+                .putBoolean(KEY_TORCH_SUPPORTED, torchSupported)
+                .putString(KEY_PREVIEW_SIZES, previewSizes)
+                .putString(KEY_PREVIEW_FPS_RANGES, previewFpsRanges)
+                .apply();
+    }
+
+    private static String getCacheKey(Context context) {
+        int appVersion;
+        try {
+            appVersion = context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            appVersion = -1;
+        }
+        return Build.FINGERPRINT + "|" + appVersion + "|" + BuildConfig.VERSION_NAME;
+    }
+
+    private static DeviceCapabilities probe() {
+        Camera c;
+        try {
+            c = Camera.open();
+        } catch (RuntimeException e) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                return null;
+            } else {
+                Log.w(Util.PUBLIC_LOG_TAG, "- Error opening camera: " + e);
+                throw new CameraUnavailableException();
+            }
+        }
+        if (c == null) {
+            return new DeviceCapabilities(false, false, "", "");
+        }
+
+        Camera.Parameters parameters;
+        try {
+            parameters = c.getParameters();
+        } finally {
+            c.release();
+        }
+
+        StringBuilder sizes = new StringBuilder();
+        List<Camera.Size> supportedPreviewSizes = parameters.getSupportedPreviewSizes();
+        if (supportedPreviewSizes != null) {
+            for (Camera.Size s : supportedPreviewSizes) {
+                if (sizes.length() > 0) {
+                    sizes.append(';');
+                }
+                sizes.append(s.width).append('x').append(s.height);
+            }
+        }
+
+        StringBuilder fpsRanges = new StringBuilder();
+        List<int[]> supportedFpsRanges = parameters.getSupportedPreviewFpsRange();
+        if (supportedFpsRanges != null) {
+            for (int[] range : supportedFpsRanges) {
+                if (fpsRanges.length() > 0) {
+                    fpsRanges.append(';');
+                }
+                fpsRanges.append(range[Camera.Parameters.PREVIEW_FPS_MIN_INDEX]).append('-')
+                        .append(range[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]);
+            }
+        }
+
+        List<String> flashModes = parameters.getSupportedFlashModes();
+        boolean torchSupported = flashModes != null
+                && flashModes.contains(Camera.Parameters.FLASH_MODE_TORCH);
+
+        return new DeviceCapabilities(true, torchSupported, sizes.toString(),
+                fpsRanges.toString());
+    }
+}
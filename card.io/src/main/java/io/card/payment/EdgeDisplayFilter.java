@@ -0,0 +1,51 @@
+package io.card.payment;
+
+/* EdgeDisplayFilter.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+/**
+ * Smooths the card edges shown in the overlay over time.
+ * <p/>
+ * Once the user has the card lined up it barely moves between frames, but edge detection can still
+ * miss an edge on a single frame, which makes the guide flicker. Once an edge is lost it keeps being
+ * displayed for {@link #HOLD_FRAMES} more frames. This only affects what is drawn, recognition still
+ * uses each frame's own result.
+ */
+class EdgeDisplayFilter {
+    /** Number of frames a lost edge is still displayed for. */
+    static final int HOLD_FRAMES = 2;
+
+    private int topHeld;
+    private int bottomHeld;
+    private int leftHeld;
+    private int rightHeld;
+
+    void reset() {
+        topHeld = 0;
+        bottomHeld = 0;
+        leftHeld = 0;
+        rightHeld = 0;
+    }
+
+    /**
+     * @return a new {@link DetectionInfo} with the edges to display for this frame.
+     */
+    DetectionInfo filter(DetectionInfo dInfo) {
+        // the counters are checked before they are updated, so a lost edge is shown on exactly
+        // HOLD_FRAMES more frames
+        DetectionInfo displayed = new DetectionInfo();
+        displayed.topEdge = dInfo.topEdge || topHeld > 0;
+        displayed.bottomEdge = dInfo.bottomEdge || bottomHeld > 0;
+        displayed.leftEdge = dInfo.leftEdge || leftHeld > 0;
+        displayed.rightEdge = dInfo.rightEdge || rightHeld > 0;
+
+        topHeld = dInfo.topEdge ? HOLD_FRAMES : Math.max(0, topHeld - 1);
+        bottomHeld = dInfo.bottomEdge ? HOLD_FRAMES : Math.max(0, bottomHeld - 1);
+        leftHeld = dInfo.leftEdge ? HOLD_FRAMES : Math.max(0, leftHeld - 1);
+        rightHeld = dInfo.rightEdge ? HOLD_FRAMES : Math.max(0, rightHeld - 1);
+
+        displayed.focusScore = dInfo.focusScore;
+        return displayed;
+    }
+}
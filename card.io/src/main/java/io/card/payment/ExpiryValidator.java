@@ -10,6 +10,8 @@ import android.text.Spanned;
 
 import java.util.Date;
 
+import io.card.payment.validation.ExpiryDates;
+
 class ExpiryValidator implements Validator {
 
     public int month;
@@ -40,7 +42,7 @@ class ExpiryValidator implements Validator {
             return;
         }
 
-        Date expiry = CreditCardNumber.getDateForString(dateStr);
+        Date expiry = ExpiryDates.getDateForString(dateStr);
         if (expiry == null) {
             return;
         }
@@ -76,18 +78,7 @@ class ExpiryValidator implements Validator {
 
     @Override
     public boolean isValid() {
-        if (month < 1 || 12 < month) {
-            return false;
-        }
-
-        Date now = new Date();
-
-        if (year > 1900 + now.getYear() + 15) {
-            return false;
-        }
-
-        return (year > 1900 + now.getYear() || (year == 1900 + now.getYear() && month >= now
-                .getMonth() + 1));
+        return ExpiryDates.isValid(month, year);
     }
 
     @Override
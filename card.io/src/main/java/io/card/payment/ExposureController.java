@@ -0,0 +1,83 @@
+package io.card.payment;
+
+/* ExposureController.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Rect;
+import android.hardware.Camera;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps exposure and white balance steady while a card is in the guide frame.
+ * <p/>
+ * Metering is restricted to the guide frame, so backgrounds and fingers around the card don't
+ * drive exposure. Once all four card edges have been found for a few consecutive frames,
+ * auto-exposure and auto-white-balance are locked, so a glossy finish can't swing them while the
+ * digits are being read. They are unlocked again once the edges have been lost for a few frames.
+ */
+class ExposureController {
+    private static final int FRAMES_TO_LOCK = 3;
+    private static final int FRAMES_TO_UNLOCK = 3;
+
+    private static final int METERING_AREA_WEIGHT = 1000;
+
+    private int mDetectedFrames;
+    private int mLostFrames;
+    private boolean mLocked;
+
+    /**
+     * Points the metering area at the guide frame. Changes are left pending on the parameters, the
+     * caller commits them.
+     *
+     * @param guideFrame the guide frame in frame (sensor) coordinates, or <code>null</code>
+     */
+    void configure(CachedCameraParameters parameters, Rect guideFrame, int frameWidth,
+                   int frameHeight) {
+        if (guideFrame != null) {
+            List<Camera.Area> areas = new ArrayList<>(1);
+            areas.add(new Camera.Area(
+                    AutoFocusScheduler.toCameraArea(guideFrame, frameWidth, frameHeight),
+                    METERING_AREA_WEIGHT));
+            parameters.setMeteringAreas(areas);
+        }
+        reset();
+    }
+
+    void reset() {
+        mDetectedFrames = 0;
+        mLostFrames = 0;
+        mLocked = false;
+    }
+
+    /**
+     * Updates the lock state for a frame on which edge detection ran. Changes are left pending on
+     * the parameters, the caller commits them.
+     *
+     * @param cardDetected whether all four edges were found on this frame
+     */
+    void onFrame(CachedCameraParameters parameters, boolean cardDetected) {
+        if (cardDetected) {
+            mLostFrames = 0;
+            mDetectedFrames++;
+            if (!mLocked && mDetectedFrames >= FRAMES_TO_LOCK) {
+                setLocked(parameters, true);
+            }
+        } else {
+            mDetectedFrames = 0;
+            mLostFrames++;
+            if (mLocked && mLostFrames >= FRAMES_TO_UNLOCK) {
+                setLocked(parameters, false);
+            }
+        }
+    }
+
+    private void setLocked(CachedCameraParameters parameters, boolean locked) {
+        // either lock may be unsupported, the other is still worth having
+        parameters.setAutoExposureLock(locked);
+        parameters.setAutoWhiteBalanceLock(locked);
+        mLocked = locked;
+    }
+}
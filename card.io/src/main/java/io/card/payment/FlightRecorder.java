@@ -0,0 +1,233 @@
+package io.card.payment;
+
+/* FlightRecorder.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import io.card.payment.ScanSessionMetrics.FrameOutcome;
+import io.card.payment.ScanSessionMetrics.Stage;
+
+/**
+ * Keeps what happened to the last {@link #CAPACITY} preview frames of a scan session.
+ * <p/>
+ * {@link ScanSessionMetrics} says how a session went overall. When one took 25 seconds, this tells
+ * why: whether the frames were blurry, the card was never found, or autofocus kept sweeping. All
+ * storage is allocated up front, recording a frame only writes into arrays. Optionally each
+ * scanned frame also keeps a {@link #THUMBNAIL_WIDTH}x{@link #THUMBNAIL_HEIGHT} luma thumbnail of
+ * the guide frame, far too small to read a card number from.
+ */
+class FlightRecorder {
+    static final int CAPACITY = 256;
+    static final int THUMBNAIL_WIDTH = 16;
+    static final int THUMBNAIL_HEIGHT = 10;
+    private static final int THUMBNAIL_SIZE = THUMBNAIL_WIDTH * THUMBNAIL_HEIGHT;
+
+    private static final int FLAG_TOP_EDGE = 1;
+    private static final int FLAG_BOTTOM_EDGE = 1 << 1;
+    private static final int FLAG_LEFT_EDGE = 1 << 2;
+    private static final int FLAG_RIGHT_EDGE = 1 << 3;
+    private static final int FLAG_FOCUSING = 1 << 4;
+    private static final int FLAG_PREDICTED = 1 << 5;
+    private static final int FLAG_THUMBNAIL = 1 << 6;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long[] mTimes = new long[CAPACITY];
+    private final byte[] mOutcomes = new byte[CAPACITY];
+    private final float[] mFocusScores = new float[CAPACITY];
+    private final byte[] mFlags = new byte[CAPACITY];
+    private final int[][] mStageMicros = new int[Stage.values().length][CAPACITY];
+    private byte[] mThumbnails;
+
+    private long mSessionStart;
+    // slot of the frame being recorded, which becomes part of the recording in endFrame()
+    private int mNext;
+    private int mCount;
+
+    FlightRecorder() {
+        reset();
+    }
+
+    /**
+     * Starts a new session, forgetting all frames.
+     */
+    void reset() {
+        mSessionStart = SystemClock.elapsedRealtime();
+        mNext = 0;
+        mCount = 0;
+    }
+
+    void setThumbnailsEnabled(boolean enabled) {
+        if (enabled && mThumbnails == null) {
+            mThumbnails = new byte[CAPACITY * THUMBNAIL_SIZE];
+        } else if (!enabled) {
+            mThumbnails = null;
+        }
+    }
+
+    void startFrame(boolean focusing) {
+        mTimes[mNext] = SystemClock.elapsedRealtime() - mSessionStart;
+        mFocusScores[mNext] = -1;
+        mFlags[mNext] = (byte) (focusing ? FLAG_FOCUSING : 0);
+        for (int[] stageMicros : mStageMicros) {
+            stageMicros[mNext] = -1;
+        }
+    }
+
+    void setStageMicros(Stage stage, long micros) {
+        mStageMicros[stage.ordinal()][mNext] = (int) Math.min(Integer.MAX_VALUE, micros);
+    }
+
+    void setDetection(DetectionInfo dInfo) {
+        int flags = mFlags[mNext];
+        flags |= (dInfo.topEdge ? FLAG_TOP_EDGE : 0) | (dInfo.bottomEdge ? FLAG_BOTTOM_EDGE : 0)
+                | (dInfo.leftEdge ? FLAG_LEFT_EDGE : 0) | (dInfo.rightEdge ? FLAG_RIGHT_EDGE : 0)
+                | (dInfo.predicted() ? FLAG_PREDICTED : 0);
+        mFlags[mNext] = (byte) flags;
+        mFocusScores[mNext] = dInfo.focusScore;
+    }
+
+    /**
+     * Point-samples the luma of the guide frame, if thumbnails are enabled.
+     */
+    void captureThumbnail(byte[] nv21, int width, int height, Rect guideFrame) {
+        if (mThumbnails == null || guideFrame == null) {
+            return;
+        }
+        int left = Math.max(0, guideFrame.left);
+        int top = Math.max(0, guideFrame.top);
+        int right = Math.min(width, guideFrame.right);
+        int bottom = Math.min(height, guideFrame.bottom);
+        if (right <= left || bottom <= top) {
+            return;
+        }
+
+        int offset = mNext * THUMBNAIL_SIZE;
+        for (int ty = 0; ty < THUMBNAIL_HEIGHT; ty++) {
+            int y = top + (2 * ty + 1) * (bottom - top) / (2 * THUMBNAIL_HEIGHT);
+            for (int tx = 0; tx < THUMBNAIL_WIDTH; tx++) {
+                int x = left + (2 * tx + 1) * (right - left) / (2 * THUMBNAIL_WIDTH);
+                mThumbnails[offset++] = nv21[y * width + x];
+            }
+        }
+        mFlags[mNext] |= FLAG_THUMBNAIL;
+    }
+
+    void endFrame(FrameOutcome outcome) {
+        mOutcomes[mNext] = (byte) outcome.ordinal();
+        mNext = (mNext + 1) % CAPACITY;
+        if (mCount < CAPACITY) {
+            mCount++;
+        }
+    }
+
+    /**
+     * @return a copy of the frames recorded so far, which can be written on another thread while
+     * this recorder goes on.
+     */
+    FlightRecorder snapshot() {
+        FlightRecorder copy = new FlightRecorder();
+        System.arraycopy(mTimes, 0, copy.mTimes, 0, CAPACITY);
+        System.arraycopy(mOutcomes, 0, copy.mOutcomes, 0, CAPACITY);
+        System.arraycopy(mFocusScores, 0, copy.mFocusScores, 0, CAPACITY);
+        System.arraycopy(mFlags, 0, copy.mFlags, 0, CAPACITY);
+        for (int i = 0; i < mStageMicros.length; i++) {
+            System.arraycopy(mStageMicros[i], 0, copy.mStageMicros[i], 0, CAPACITY);
+        }
+        if (mThumbnails != null) {
+            copy.mThumbnails = mThumbnails.clone();
+        }
+        copy.mSessionStart = mSessionStart;
+        copy.mNext = mNext;
+        copy.mCount = mCount;
+        return copy;
+    }
+
+    /**
+     * @return the number of recorded frames, at most {@link #CAPACITY}.
+     */
+    int size() {
+        return mCount;
+    }
+
+    /**
+     * Writes the recorded frames, oldest first, as CSV. Missing values are -1, edges are listed as
+     * "TBLR" with '-' for edges that weren't found, and thumbnails are hex encoded rows of luma.
+     *
+     * @param metrics the metrics of the session, written as a header comment
+     */
+    void writeTo(Writer out, ScanSessionMetrics metrics) throws IOException {
+        out.write("# card.io flight recording\n");
+        if (metrics != null) {
+            out.write("# " + metrics + "\n");
+        }
+        out.write("time_ms,outcome,focus_score,edges,focusing,predicted,"
+                + "frame_us,change_detection_us,recognition_us,thumbnail\n");
+
+        FrameOutcome[] outcomes = FrameOutcome.values();
+        char[] thumbnail = new char[THUMBNAIL_SIZE * 2];
+        int first = (mNext - mCount + CAPACITY) % CAPACITY;
+        for (int i = 0; i < mCount; i++) {
+            int slot = (first + i) % CAPACITY;
+            int flags = mFlags[slot];
+            StringBuilder line = new StringBuilder(80 + thumbnail.length);
+            line.append(mTimes[slot]).append(',')
+                    .append(outcomes[mOutcomes[slot]]).append(',')
+                    .append(mFocusScores[slot]).append(',')
+                    .append((flags & FLAG_TOP_EDGE) != 0 ? 'T' : '-')
+                    .append((flags & FLAG_BOTTOM_EDGE) != 0 ? 'B' : '-')
+                    .append((flags & FLAG_LEFT_EDGE) != 0 ? 'L' : '-')
+                    .append((flags & FLAG_RIGHT_EDGE) != 0 ? 'R' : '-').append(',')
+                    .append((flags & FLAG_FOCUSING) != 0 ? 1 : 0).append(',')
+                    .append((flags & FLAG_PREDICTED) != 0 ? 1 : 0);
+            for (Stage stage : Stage.values()) {
+                line.append(',').append(mStageMicros[stage.ordinal()][slot]);
+            }
+            line.append(',');
+            if (mThumbnails != null && (flags & FLAG_THUMBNAIL) != 0) {
+                int offset = slot * THUMBNAIL_SIZE;
+                for (int p = 0; p < THUMBNAIL_SIZE; p++) {
+                    int luma = mThumbnails[offset + p] & 0xff;
+                    thumbnail[2 * p] = HEX_DIGITS[luma >> 4];
+                    thumbnail[2 * p + 1] = HEX_DIGITS[luma & 0xf];
+                }
+                line.append(thumbnail);
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    /**
+     * Writes the recording to the given file, deleting the oldest recordings in its directory so
+     * that at most <code>maxFiles</code> remain. The file only shows up once it is complete.
+     */
+    void writeToFile(File file, ScanSessionMetrics metrics, int maxFiles) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("could not create " + dir);
+        }
+
+        Util.deleteOldestFiles(dir, maxFiles - 1);
+
+        File partial = new File(dir, file.getName() + ".part");
+        Writer out = new BufferedWriter(new FileWriter(partial));
+        try {
+            writeTo(out, metrics);
+        } finally {
+            out.close();
+        }
+        if (!partial.renameTo(file)) {
+            partial.delete();
+            throw new IOException("could not rename " + partial);
+        }
+    }
+}
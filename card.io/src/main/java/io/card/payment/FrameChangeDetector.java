@@ -0,0 +1,130 @@
+package io.card.payment;
+
+/* FrameChangeDetector.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Rect;
+
+/**
+ * Spots preview frames that are nearly identical to the last frame that was scanned.
+ * <p/>
+ * The signature of a frame is the mean luma of each cell of a coarse grid laid over the guide
+ * frame, sampled sparsely. While the phone rests on a table, or the card is held still outside the
+ * guide, consecutive signatures barely differ and scanning the frame again would give the same
+ * result. Such frames can be skipped, see {@link #canSkipAfter(DetectionInfo, boolean)}, but never
+ * more than {@link #MAX_CONSECUTIVE_SKIPS} in a row, so slow changes (exposure settling, the card
+ * creeping into view) are still picked up.
+ */
+class FrameChangeDetector {
+    private static final int GRID_SIZE = 8;
+    private static final int SAMPLE_STEP = 4;
+
+    // mean absolute difference of the cell means, in luma levels
+    private static final int CHANGE_THRESHOLD = 3;
+
+    static final int MAX_CONSECUTIVE_SKIPS = 5;
+
+    private final int[] mSignature = new int[GRID_SIZE * GRID_SIZE];
+    private final int[] mLastSignature = new int[GRID_SIZE * GRID_SIZE];
+    private final int[] mCounts = new int[GRID_SIZE * GRID_SIZE];
+    private final Rect mLastRect = new Rect();
+    private boolean mHasLastSignature;
+    private int mConsecutiveSkips;
+
+    /**
+     * Forgets the last scanned frame, so that the next frame is always scanned.
+     */
+    void reset() {
+        mHasLastSignature = false;
+        mConsecutiveSkips = 0;
+    }
+
+    /**
+     * Frames may only be skipped while no card is found: once the card is in view, every frame is
+     * another chance to read it.
+     *
+     * @param scanned the result of the last scanned frame
+     * @param sufficientFocus whether that frame was sharp enough to read
+     * @return <code>true</code> if frames matching the last scanned frame may be skipped
+     */
+    static boolean canSkipAfter(DetectionInfo scanned, boolean sufficientFocus) {
+        if (scanned.cardAbsent) {
+            return true;
+        }
+        // blurry frames still need scoring to drive autofocus
+        return sufficientFocus && !scanned.detected();
+    }
+
+    /**
+     * @param nv21 the frame, whose luma plane is <code>width * height</code> bytes
+     * @param guideFrame the guide frame in frame coordinates
+     * @param allowSkip <code>false</code> if the frame has to be scanned anyway, for instance
+     *                  because the last scanned frame was too blurry to judge by
+     * @return <code>true</code> if the frame should be skipped. Otherwise the frame becomes the new
+     * reference for following frames.
+     */
+    boolean shouldSkip(byte[] nv21, int width, int height, Rect guideFrame, boolean allowSkip) {
+        if (guideFrame == null) {
+            return false;
+        }
+
+        int left = Math.max(0, guideFrame.left);
+        int top = Math.max(0, guideFrame.top);
+        int right = Math.min(width, guideFrame.right);
+        int bottom = Math.min(height, guideFrame.bottom);
+        if (right - left < GRID_SIZE || bottom - top < GRID_SIZE) {
+            return false;
+        }
+
+        computeSignature(nv21, width, left, top, right, bottom);
+
+        boolean sameRect = mLastRect.left == left && mLastRect.top == top
+                && mLastRect.right == right && mLastRect.bottom == bottom;
+        if (allowSkip && mHasLastSignature && sameRect
+                && mConsecutiveSkips < MAX_CONSECUTIVE_SKIPS
+                && meanDifference() <= CHANGE_THRESHOLD) {
+            mConsecutiveSkips++;
+            return true;
+        }
+
+        System.arraycopy(mSignature, 0, mLastSignature, 0, mSignature.length);
+        mLastRect.set(left, top, right, bottom);
+        mHasLastSignature = true;
+        mConsecutiveSkips = 0;
+        return false;
+    }
+
+    private void computeSignature(byte[] nv21, int width, int left, int top, int right,
+                                  int bottom) {
+        int cellWidth = (right - left + GRID_SIZE - 1) / GRID_SIZE;
+        int cellHeight = (bottom - top + GRID_SIZE - 1) / GRID_SIZE;
+
+        for (int i = 0; i < mSignature.length; i++) {
+            mSignature[i] = 0;
+            mCounts[i] = 0;
+        }
+        for (int y = top; y < bottom; y += SAMPLE_STEP) {
+            int rowOffset = y * width;
+            int cellRow = ((y - top) / cellHeight) * GRID_SIZE;
+            for (int x = left; x < right; x += SAMPLE_STEP) {
+                int cell = cellRow + (x - left) / cellWidth;
+                mSignature[cell] += nv21[rowOffset + x] & 0xff;
+                mCounts[cell]++;
+            }
+        }
+        for (int i = 0; i < mSignature.length; i++) {
+            if (mCounts[i] > 0) {
+                mSignature[i] /= mCounts[i];
+            }
+        }
+    }
+
+    private int meanDifference() {
+        int sum = 0;
+        for (int i = 0; i < mSignature.length; i++) {
+            sum += Math.abs(mSignature[i] - mLastSignature[i]);
+        }
+        return sum / mSignature.length;
+    }
+}
@@ -0,0 +1,74 @@
+package io.card.payment;
+
+/* MotionGate.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.SystemClock;
+
+/**
+ * Tracks whether the device is turning fast enough to motion-blur preview frames.
+ * <p/>
+ * Frames captured while the phone swings around are too blurred to recognize, and used to cost a
+ * full focus scoring and edge detection pass before being rejected. An autofocus sweep started
+ * during such motion is wasted as well, since the scene changes before it completes. The gyroscope
+ * tells us about both for free. Devices without a gyroscope are never considered moving.
+ */
+class MotionGate implements SensorEventListener {
+    // rad/s. Around this speed a 30ms exposure smears the card by several pixels.
+    private static final float MAX_ANGULAR_SPEED = 0.6f;
+
+    // frames reach onPreviewFrame a frame or two after capture, so keep gating a bit longer
+    private static final long SETTLE_MS = 200;
+
+    private final SensorManager mSensorManager;
+    private final Sensor mGyroscope;
+    private volatile long mLastFastMotionAt;
+
+    MotionGate(Context context) {
+        mSensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        mGyroscope = mSensorManager != null
+                ? mSensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE) : null;
+    }
+
+    void enable() {
+        mLastFastMotionAt = 0;
+        if (mGyroscope != null) {
+            mSensorManager.registerListener(this, mGyroscope, SensorManager.SENSOR_DELAY_GAME);
+        }
+    }
+
+    void disable() {
+        if (mGyroscope != null) {
+            mSensorManager.unregisterListener(this);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the device turned fast within the last {@link #SETTLE_MS}.
+     */
+    boolean isMoving() {
+        long lastFastMotionAt = mLastFastMotionAt;
+        return lastFastMotionAt != 0
+                && SystemClock.elapsedRealtime() - lastFastMotionAt < SETTLE_MS;
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        float x = event.values[0];
+        float y = event.values[1];
+        float z = event.values[2];
+        if (x * x + y * y + z * z > MAX_ANGULAR_SPEED * MAX_ANGULAR_SPEED) {
+            mLastFastMotionAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+    }
+}
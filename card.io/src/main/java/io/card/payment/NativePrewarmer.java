@@ -0,0 +1,45 @@
+package io.card.payment;
+
+/* NativePrewarmer.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs {@link CardScanner#prewarmNative()} on a background thread.
+ * <p/>
+ * Kept apart from {@link CardScanner} so that starting the prewarm doesn't initialize that class on
+ * the caller's thread: its static initializer loads all native libraries, which is the slowest
+ * part of the warm-up. This class must only refer to {@link CardScanner} from within the task.
+ */
+class NativePrewarmer {
+    private static FutureTask<Boolean> sPrewarmTask;
+
+    private NativePrewarmer() {
+    }
+
+    /**
+     * Starts the prewarm. Calling this more than once returns the same task.
+     *
+     * @return a future resolving to {@link CardScanner#processorSupported()}
+     */
+    static synchronized Future<Boolean> prewarm() {
+        if (sPrewarmTask == null) {
+            sPrewarmTask = new FutureTask<>(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    // first use of CardScanner, so its libraries are loaded on this thread
+                    return CardScanner.prewarmNative();
+                }
+            });
+
+            Thread prewarmThread = new Thread(sPrewarmTask, "card.io prewarm");
+            prewarmThread.setPriority(Thread.MIN_PRIORITY);
+            prewarmThread.start();
+        }
+        return sPrewarmTask;
+    }
+}
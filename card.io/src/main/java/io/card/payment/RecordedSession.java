@@ -0,0 +1,194 @@
+package io.card.payment;
+
+/* RecordedSession.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads back preview frames written by {@link SessionRecorder}, in capture order.
+ * <p/>
+ * File format, all values big-endian:
+ * <pre>
+ * header: "CIOSESS1", int version, int width, int height, int imageFormat
+ * chunk:  int tag, int payloadLength, payload
+ *
+ * TAG_PARAMETERS payload: UTF-8 of Camera.Parameters.flatten(), applies to the frames after it
+ * TAG_FRAME payload:      long timestampNanos, int orientation, int frameLength, deflated frame
+ * TAG_END payload:        empty, marks a recording that was closed properly
+ * </pre>
+ * Timestamps count from the first recorded frame. Unknown chunks are skipped, and a recording
+ * cut short by a crash reads up to its last complete chunk.
+ */
+class RecordedSession implements Closeable {
+    static final byte[] MAGIC = { 'C', 'I', 'O', 'S', 'E', 'S', 'S', '1' };
+    static final int VERSION = 1;
+
+    static final int TAG_PARAMETERS = 0x50415241; // "PARA"
+    static final int TAG_FRAME = 0x46524d45; // "FRME"
+    static final int TAG_END = 0x454e4421; // "END!"
+
+    static final int FRAME_HEADER_LENGTH = 16;
+
+    /**
+     * One recorded frame. Reused across {@link #nextFrame(Frame)} calls.
+     */
+    static class Frame {
+        long timestampNanos;
+        int orientation;
+        byte[] data;
+        int length;
+        // the parameters in use when the frame was captured, null if none were recorded
+        String cameraParameters;
+    }
+
+    private final DataInputStream mIn;
+    private final int mWidth;
+    private final int mHeight;
+    private final int mImageFormat;
+    private final Inflater mInflater = new Inflater();
+    private byte[] mCompressed = new byte[0];
+    private String mCameraParameters;
+
+    RecordedSession(File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    /**
+     * @param in the recording, closed by {@link #close()}
+     */
+    RecordedSession(InputStream in) throws IOException {
+        mIn = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            mIn.readFully(magic);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new IOException("not a card.io session recording");
+                }
+            }
+            int version = mIn.readInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported session recording version " + version);
+            }
+            mWidth = mIn.readInt();
+            mHeight = mIn.readInt();
+            mImageFormat = mIn.readInt();
+        } catch (IOException e) {
+            mIn.close();
+            throw e;
+        }
+    }
+
+    int getWidth() {
+        return mWidth;
+    }
+
+    int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * @return one of the {@link android.graphics.ImageFormat} constants, NV21 for camera frames.
+     */
+    int getImageFormat() {
+        return mImageFormat;
+    }
+
+    /**
+     * @param frame receives the next frame. Its buffer is reallocated only if it is too small.
+     * @return <code>false</code> at the end of the recording.
+     */
+    boolean nextFrame(Frame frame) throws IOException {
+        while (true) {
+            int tag;
+            int length;
+            try {
+                tag = mIn.readInt();
+                length = mIn.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+
+            try {
+                if (tag == TAG_END) {
+                    return false;
+                } else if (tag == TAG_PARAMETERS) {
+                    byte[] utf8 = new byte[length];
+                    mIn.readFully(utf8);
+                    mCameraParameters = new String(utf8, "UTF-8");
+                } else if (tag == TAG_FRAME) {
+                    readFrame(frame, length);
+                    return true;
+                } else {
+                    skipFully(length);
+                }
+            } catch (EOFException e) {
+                // truncated recording
+                return false;
+            }
+        }
+    }
+
+    private void readFrame(Frame frame, int length) throws IOException {
+        frame.timestampNanos = mIn.readLong();
+        frame.orientation = mIn.readInt();
+        frame.length = mIn.readInt();
+        frame.cameraParameters = mCameraParameters;
+        if (frame.data == null || frame.data.length < frame.length) {
+            frame.data = new byte[frame.length];
+        }
+
+        int compressedLength = length - FRAME_HEADER_LENGTH;
+        if (mCompressed.length < compressedLength) {
+            mCompressed = new byte[compressedLength];
+        }
+        mIn.readFully(mCompressed, 0, compressedLength);
+
+        mInflater.reset();
+        mInflater.setInput(mCompressed, 0, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < frame.length && !mInflater.finished()) {
+                int n = mInflater.inflate(frame.data, inflated, frame.length - inflated);
+                if (n == 0 && (mInflater.needsInput() || mInflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != frame.length) {
+                throw new IOException("corrupt frame, " + inflated + " of " + frame.length
+                        + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt frame: " + e.getMessage());
+        }
+    }
+
+    private void skipFully(int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = mIn.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mInflater.end();
+        mIn.close();
+    }
+}
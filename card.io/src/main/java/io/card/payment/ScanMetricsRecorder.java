@@ -0,0 +1,130 @@
+package io.card.payment;
+
+/* ScanMetricsRecorder.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.os.SystemClock;
+
+import io.card.payment.ScanSessionMetrics.FrameOutcome;
+import io.card.payment.ScanSessionMetrics.Stage;
+
+/**
+ * Collects {@link ScanSessionMetrics} on the preview thread. Recording doesn't allocate, only
+ * {@link #snapshot(int)} does.
+ */
+class ScanMetricsRecorder {
+    private long mSessionStart;
+    private long mFirstFrameAt;
+    private long mEdgesDetectedAt;
+    private long mResultAt;
+
+    private final int[] mFrameCounts = new int[FrameOutcome.values().length];
+    private final int[] mFocusScoreHistogram = new int[ScanSessionMetrics.FOCUS_SCORE_BUCKETS];
+    private final int[][] mLatencyHistograms =
+            new int[Stage.values().length][ScanSessionMetrics.LATENCY_BUCKETS];
+    private final long[] mMaxLatencyMicros = new long[Stage.values().length];
+
+    private int mManualAutoFocusCount;
+    private int mAutoFocusCount;
+    private int mTorchChangeCount;
+
+    ScanMetricsRecorder() {
+        reset();
+    }
+
+    /**
+     * Starts a new session.
+     */
+    void reset() {
+        mSessionStart = SystemClock.elapsedRealtime();
+        mFirstFrameAt = -1;
+        mEdgesDetectedAt = -1;
+        mResultAt = -1;
+        clear(mFrameCounts);
+        clear(mFocusScoreHistogram);
+        for (int i = 0; i < mLatencyHistograms.length; i++) {
+            clear(mLatencyHistograms[i]);
+            mMaxLatencyMicros[i] = 0;
+        }
+        mManualAutoFocusCount = 0;
+        mAutoFocusCount = 0;
+        mTorchChangeCount = 0;
+    }
+
+    void onFrameDelivered() {
+        if (mFirstFrameAt < 0) {
+            mFirstFrameAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    void onFrame(FrameOutcome outcome) {
+        mFrameCounts[outcome.ordinal()]++;
+    }
+
+    void onFocusScore(float focusScore) {
+        mFocusScoreHistogram[ScanSessionMetrics.focusScoreBucket(focusScore)]++;
+    }
+
+    void onEdgesDetected() {
+        if (mEdgesDetectedAt < 0) {
+            mEdgesDetectedAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    void onResult() {
+        if (mResultAt < 0) {
+            mResultAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    void onAutoFocus(boolean isManual) {
+        if (isManual) {
+            mManualAutoFocusCount++;
+        } else {
+            mAutoFocusCount++;
+        }
+    }
+
+    void onTorchChange() {
+        mTorchChangeCount++;
+    }
+
+    /**
+     * @param startNanos the start of the stage, from {@link System#nanoTime()}
+     * @return the duration of the stage in microseconds
+     */
+    long onStageCompleted(Stage stage, long startNanos) {
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        mLatencyHistograms[stage.ordinal()][ScanSessionMetrics.latencyBucket(micros)]++;
+        if (micros > mMaxLatencyMicros[stage.ordinal()]) {
+            mMaxLatencyMicros[stage.ordinal()] = micros;
+        }
+        return micros;
+    }
+
+    /**
+     * @param framesRecognized frames the native recognizer ran on, which it counts itself
+     */
+    ScanSessionMetrics snapshot(int framesRecognized) {
+        int[][] latencyHistograms = new int[mLatencyHistograms.length][];
+        for (int i = 0; i < latencyHistograms.length; i++) {
+            latencyHistograms[i] = mLatencyHistograms[i].clone();
+        }
+        return new ScanSessionMetrics(sinceStart(mFirstFrameAt), sinceStart(mEdgesDetectedAt),
+                sinceStart(mResultAt), SystemClock.elapsedRealtime() - mSessionStart,
+                mFrameCounts.clone(), framesRecognized, mFocusScoreHistogram.clone(),
+                mManualAutoFocusCount, mAutoFocusCount, mTorchChangeCount, latencyHistograms,
+                mMaxLatencyMicros.clone());
+    }
+
+    private long sinceStart(long time) {
+        return time < 0 ? -1 : time - mSessionStart;
+    }
+
+    private static void clear(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+}
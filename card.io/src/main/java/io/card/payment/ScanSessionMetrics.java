@@ -0,0 +1,354 @@
+package io.card.payment;
+
+/* ScanSessionMetrics.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * Performance metrics of one scan session, from the moment the camera screen is set up until the
+ * {@link CardIOActivity} finishes. Returned in the data intent of every result, including
+ * cancelled scans, under {@link CardIOActivity#EXTRA_SCAN_METRICS}.
+ * <br><br>
+ * Times are in milliseconds since the start of the session, or -1 if the event didn't happen.
+ *
+ * @version 1.0
+ */
+public class ScanSessionMetrics implements Parcelable {
+
+    /**
+     * What happened to a preview frame delivered by the camera. Every frame has exactly one
+     * outcome.
+     */
+    public enum FrameOutcome {
+        /**
+         * Dropped because the previous frame was still being processed.
+         */
+        SKIPPED_BUSY,
+        /**
+         * Dropped because the lens was moving during an autofocus sweep.
+         */
+        SKIPPED_FOCUSING,
+        /**
+         * Dropped because the device was turning too fast.
+         */
+        SKIPPED_MOVING,
+        /**
+         * Dropped because it was nearly identical to the last scanned frame.
+         */
+        SKIPPED_UNCHANGED,
+        /**
+         * Scanned, but no card could be present.
+         */
+        NO_CARD,
+        /**
+         * Scanned, but too blurry to look for a card.
+         */
+        OUT_OF_FOCUS,
+        /**
+         * Scanned and sharp enough to look for a card.
+         */
+        IN_FOCUS,
+    }
+
+    /**
+     * Timed stages of the per-frame pipeline.
+     */
+    public enum Stage {
+        /**
+         * All work on a scanned frame, in {@link android.hardware.Camera.PreviewCallback}.
+         */
+        FRAME,
+        /**
+         * Checking whether the frame differs from the last scanned one.
+         */
+        CHANGE_DETECTION,
+        /**
+         * Native focus scoring, edge detection and recognition.
+         */
+        RECOGNITION,
+    }
+
+    /**
+     * Width of each bucket of {@link #getFocusScoreHistogram()}.
+     */
+    public static final int FOCUS_SCORE_BUCKET_WIDTH = 2;
+
+    /**
+     * Number of buckets of {@link #getFocusScoreHistogram()}. The last one holds all higher scores.
+     */
+    public static final int FOCUS_SCORE_BUCKETS = 16;
+
+    // latency buckets grow by a factor of 2^(1/4) from 0.25ms, the last one is open-ended
+    static final int LATENCY_BUCKETS = 49;
+    private static final int[] LATENCY_BUCKET_UPPER_MICROS = new int[LATENCY_BUCKETS - 1];
+
+    static {
+        for (int i = 0; i < LATENCY_BUCKET_UPPER_MICROS.length; i++) {
+            LATENCY_BUCKET_UPPER_MICROS[i] = (int) Math.round(250 * Math.pow(2, i / 4.0));
+        }
+    }
+
+    private final long mTimeToFirstFrame;
+    private final long mTimeToEdgesDetected;
+    private final long mTimeToResult;
+    private final long mDuration;
+    private final int[] mFrameCounts;
+    private final int mFramesRecognized;
+    private final int[] mFocusScoreHistogram;
+    private final int mManualAutoFocusCount;
+    private final int mAutoFocusCount;
+    private final int mTorchChangeCount;
+    private final int[][] mLatencyHistograms;
+    private final long[] mMaxLatencyMicros;
+
+    ScanSessionMetrics(long timeToFirstFrame, long timeToEdgesDetected, long timeToResult,
+                       long duration, int[] frameCounts, int framesRecognized,
+                       int[] focusScoreHistogram, int manualAutoFocusCount, int autoFocusCount,
+                       int torchChangeCount, int[][] latencyHistograms, long[] maxLatencyMicros) {
+        mTimeToFirstFrame = timeToFirstFrame;
+        mTimeToEdgesDetected = timeToEdgesDetected;
+        mTimeToResult = timeToResult;
+        mDuration = duration;
+        mFrameCounts = frameCounts;
+        mFramesRecognized = framesRecognized;
+        mFocusScoreHistogram = focusScoreHistogram;
+        mManualAutoFocusCount = manualAutoFocusCount;
+        mAutoFocusCount = autoFocusCount;
+        mTorchChangeCount = torchChangeCount;
+        mLatencyHistograms = latencyHistograms;
+        mMaxLatencyMicros = maxLatencyMicros;
+    }
+
+    /**
+     * @return time until the camera delivered the first preview frame.
+     */
+    public long getTimeToFirstFrame() {
+        return mTimeToFirstFrame;
+    }
+
+    /**
+     * @return time until all four edges of the card were first detected.
+     */
+    public long getTimeToEdgesDetected() {
+        return mTimeToEdgesDetected;
+    }
+
+    /**
+     * @return time until the card was scanned, -1 if it wasn't (e.g. cancelled or entered manually).
+     */
+    public long getTimeToResult() {
+        return mTimeToResult;
+    }
+
+    /**
+     * @return total length of the session.
+     */
+    public long getDuration() {
+        return mDuration;
+    }
+
+    /**
+     * @return the number of preview frames with the given outcome.
+     */
+    public int getFrameCount(FrameOutcome outcome) {
+        return mFrameCounts[outcome.ordinal()];
+    }
+
+    /**
+     * @return the number of preview frames delivered by the camera.
+     */
+    public int getFramesDelivered() {
+        int total = 0;
+        for (int count : mFrameCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of preview frames that went through native scanning.
+     */
+    public int getFramesProcessed() {
+        return getFrameCount(FrameOutcome.NO_CARD) + getFrameCount(FrameOutcome.OUT_OF_FOCUS)
+                + getFrameCount(FrameOutcome.IN_FOCUS);
+    }
+
+    /**
+     * @return the number of frames on which the card number recognizer ran.
+     */
+    public int getFramesRecognized() {
+        return mFramesRecognized;
+    }
+
+    /**
+     * @return focus scores of scanned frames. Bucket <code>i</code> counts scores from
+     * <code>i * FOCUS_SCORE_BUCKET_WIDTH</code> to just below <code>(i + 1) *
+     * FOCUS_SCORE_BUCKET_WIDTH</code>.
+     */
+    public int[] getFocusScoreHistogram() {
+        return mFocusScoreHistogram.clone();
+    }
+
+    /**
+     * @return the number of autofocus sweeps requested by the user.
+     */
+    public int getManualAutoFocusCount() {
+        return mManualAutoFocusCount;
+    }
+
+    /**
+     * @return the number of autofocus sweeps triggered by blurry frames.
+     */
+    public int getAutoFocusCount() {
+        return mAutoFocusCount;
+    }
+
+    /**
+     * @return the number of times the torch was switched on or off.
+     */
+    public int getTorchChangeCount() {
+        return mTorchChangeCount;
+    }
+
+    /**
+     * @return the number of timed frames for the given stage.
+     */
+    public int getLatencySampleCount(Stage stage) {
+        int total = 0;
+        for (int count : mLatencyHistograms[stage.ordinal()]) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Latencies are kept in buckets about 20% wide, so the result is the upper bound of the bucket
+     * holding the percentile.
+     *
+     * @param stage the stage
+     * @param percentile 0 to 100, e.g. 50 for the median
+     * @return the latency in milliseconds, or -1 if the stage was never timed.
+     */
+    public float getLatencyPercentile(Stage stage, int percentile) {
+        int[] histogram = mLatencyHistograms[stage.ordinal()];
+        int samples = getLatencySampleCount(stage);
+        if (samples == 0) {
+            return -1;
+        }
+
+        long rank = Math.max(1, ((long) samples * percentile + 99) / 100);
+        int seen = 0;
+        for (int i = 0; i < histogram.length - 1; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(LATENCY_BUCKET_UPPER_MICROS[i],
+                        mMaxLatencyMicros[stage.ordinal()]) / 1000f;
+            }
+        }
+        return mMaxLatencyMicros[stage.ordinal()] / 1000f;
+    }
+
+    static int latencyBucket(long micros) {
+        int low = 0;
+        int high = LATENCY_BUCKET_UPPER_MICROS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (micros <= LATENCY_BUCKET_UPPER_MICROS[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    static int focusScoreBucket(float focusScore) {
+        int bucket = (int) (focusScore / FOCUS_SCORE_BUCKET_WIDTH);
+        return Math.max(0, Math.min(FOCUS_SCORE_BUCKETS - 1, bucket));
+    }
+
+    // parcelable
+    private ScanSessionMetrics(Parcel src) {
+        mTimeToFirstFrame = src.readLong();
+        mTimeToEdgesDetected = src.readLong();
+        mTimeToResult = src.readLong();
+        mDuration = src.readLong();
+        mFrameCounts = src.createIntArray();
+        mFramesRecognized = src.readInt();
+        mFocusScoreHistogram = src.createIntArray();
+        mManualAutoFocusCount = src.readInt();
+        mAutoFocusCount = src.readInt();
+        mTorchChangeCount = src.readInt();
+        mLatencyHistograms = new int[Stage.values().length][];
+        for (int i = 0; i < mLatencyHistograms.length; i++) {
+            mLatencyHistograms[i] = src.createIntArray();
+        }
+        mMaxLatencyMicros = src.createLongArray();
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public final void writeToParcel(Parcel dest, int flags) {
+        dest.writeLong(mTimeToFirstFrame);
+        dest.writeLong(mTimeToEdgesDetected);
+        dest.writeLong(mTimeToResult);
+        dest.writeLong(mDuration);
+        dest.writeIntArray(mFrameCounts);
+        dest.writeInt(mFramesRecognized);
+        dest.writeIntArray(mFocusScoreHistogram);
+        dest.writeInt(mManualAutoFocusCount);
+        dest.writeInt(mAutoFocusCount);
+        dest.writeInt(mTorchChangeCount);
+        for (int[] histogram : mLatencyHistograms) {
+            dest.writeIntArray(histogram);
+        }
+        dest.writeLongArray(mMaxLatencyMicros);
+    }
+
+    public static final Parcelable.Creator<ScanSessionMetrics> CREATOR =
+            new Parcelable.Creator<ScanSessionMetrics>() {
+
+                @Override
+                public ScanSessionMetrics createFromParcel(Parcel source) {
+                    return new ScanSessionMetrics(source);
+                }
+
+                @Override
+                public ScanSessionMetrics[] newArray(int size) {
+                    return new ScanSessionMetrics[size];
+                }
+            };
+
+    /**
+     * @return a string suitable for writing to a log.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("firstFrame:").append(mTimeToFirstFrame)
+                .append("  edges:").append(mTimeToEdgesDetected)
+                .append("  result:").append(mTimeToResult)
+                .append("  duration:").append(mDuration);
+        for (FrameOutcome outcome : FrameOutcome.values()) {
+            sb.append("  ").append(outcome).append(':').append(getFrameCount(outcome));
+        }
+        sb.append("  recognized:").append(mFramesRecognized)
+                .append("  af:").append(mAutoFocusCount)
+                .append("  manualAf:").append(mManualAutoFocusCount)
+                .append("  torch:").append(mTorchChangeCount);
+        for (Stage stage : Stage.values()) {
+            sb.append("  ").append(stage)
+                    .append(" p50:").append(getLatencyPercentile(stage, 50))
+                    .append(" p90:").append(getLatencyPercentile(stage, 90))
+                    .append(" p99:").append(getLatencyPercentile(stage, 99));
+        }
+        return sb.append('}').toString();
+    }
+}
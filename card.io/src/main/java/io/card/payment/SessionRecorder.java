@@ -0,0 +1,267 @@
+package io.card.payment;
+
+/* SessionRecorder.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Writes raw preview frames of a scan session to a file, for offline replay with
+ * {@link RecordedSession}. See there for the format.
+ * <p/>
+ * The preview thread only copies each frame into one of {@link #BUFFERED_FRAMES} preallocated
+ * buffers. Compression and file IO happen on a background thread. If all buffers are waiting to be
+ * written, the frame is dropped rather than blocking the preview or growing memory, and the drop
+ * is counted. At most {@link #MAX_FRAMES} frames are recorded from the camera. The recording is
+ * written next to its file and only renamed to it once it is complete.
+ * <p/>
+ * Recordings hold full card images and numbers. They are a debugging tool, never enabled in
+ * release builds of the host app, see {@link CardIOActivity#EXTRA_RECORD_SESSION}.
+ */
+class SessionRecorder {
+    private static final String TAG = SessionRecorder.class.getSimpleName();
+
+    private static final int BUFFERED_FRAMES = 4;
+    // about 20 seconds of preview, later frames are not recorded
+    static final int MAX_FRAMES = 600;
+
+    private static class Chunk {
+        final int tag;
+        final byte[] data;
+        int length;
+        long timestampNanos;
+        int orientation;
+
+        Chunk(int tag, byte[] data) {
+            this.tag = tag;
+            this.data = data;
+        }
+    }
+
+    private final File mFile;
+    private final File mPartialFile;
+    private final int mFrameLength;
+    private final DataOutputStream mOut;
+    private final BlockingQueue<Chunk> mFreeFrames = new ArrayBlockingQueue<>(BUFFERED_FRAMES);
+    // frame chunks, parameter chunks and the end chunk, in capture order
+    private final BlockingQueue<Chunk> mPending = new ArrayBlockingQueue<>(BUFFERED_FRAMES + 16);
+    private final Thread mWriter;
+
+    private long mFirstFrameNanos = -1;
+    private int mRecordedFrames;
+    private int mDroppedFrames;
+    private boolean mClosed;
+    private volatile IOException mWriteError;
+
+    /**
+     * @param imageFormat one of the {@link android.graphics.ImageFormat} constants
+     */
+    SessionRecorder(File file, int width, int height, int imageFormat) throws IOException {
+        mFile = file;
+        mPartialFile = new File(file.getPath() + ".part");
+        mFrameLength = width * height * 3 / 2;
+        mOut = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(mPartialFile), 1 << 16));
+        try {
+            mOut.write(RecordedSession.MAGIC);
+            mOut.writeInt(RecordedSession.VERSION);
+            mOut.writeInt(width);
+            mOut.writeInt(height);
+            mOut.writeInt(imageFormat);
+        } catch (IOException e) {
+            mOut.close();
+            mPartialFile.delete();
+            throw e;
+        }
+
+        for (int i = 0; i < BUFFERED_FRAMES; i++) {
+            mFreeFrames.add(new Chunk(RecordedSession.TAG_FRAME, new byte[mFrameLength]));
+        }
+
+        mWriter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeChunks();
+            }
+        }, "cardio-session-recorder");
+        mWriter.setPriority(Thread.MIN_PRIORITY);
+        mWriter.start();
+    }
+
+    File getFile() {
+        return mFile;
+    }
+
+    /**
+     * Records the camera parameters that apply to the following frames.
+     */
+    void onCameraParameters(String flattened) {
+        if (mClosed) {
+            return;
+        }
+        try {
+            byte[] utf8 = flattened.getBytes("UTF-8");
+            Chunk chunk = new Chunk(RecordedSession.TAG_PARAMETERS, utf8);
+            chunk.length = utf8.length;
+            if (!mPending.offer(chunk)) {
+                Log.w(TAG, "dropped camera parameters, the writer is behind");
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "could not encode camera parameters", e);
+        }
+    }
+
+    /**
+     * Copies the frame for writing, or drops it if the writer is behind. Called on the preview
+     * thread.
+     */
+    void onFrame(byte[] frame, int orientation) {
+        if (mClosed || mRecordedFrames >= MAX_FRAMES) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (mFirstFrameNanos < 0) {
+            mFirstFrameNanos = now;
+        }
+
+        Chunk chunk = mFreeFrames.poll();
+        if (chunk == null) {
+            mDroppedFrames++;
+            return;
+        }
+        enqueueFrame(chunk, frame, orientation, now - mFirstFrameNanos);
+    }
+
+    /**
+     * Writes a frame with the given timestamp, waiting for a free buffer instead of dropping the
+     * frame. For frames that don't come from a live camera, such as generated ones.
+     */
+    void writeFrame(byte[] frame, int orientation, long timestampNanos)
+            throws InterruptedException {
+        if (mClosed) {
+            return;
+        }
+        enqueueFrame(mFreeFrames.take(), frame, orientation, timestampNanos);
+    }
+
+    private void enqueueFrame(Chunk chunk, byte[] frame, int orientation, long timestampNanos) {
+        chunk.length = Math.min(mFrameLength, frame.length);
+        System.arraycopy(frame, 0, chunk.data, 0, chunk.length);
+        chunk.timestampNanos = timestampNanos;
+        chunk.orientation = orientation;
+        if (mPending.offer(chunk)) {
+            mRecordedFrames++;
+        } else {
+            mFreeFrames.offer(chunk);
+            mDroppedFrames++;
+        }
+    }
+
+    /**
+     * Writes the remaining frames and closes the file. Blocks until the writer is done.
+     *
+     * @return the recording, or null if it couldn't be written.
+     */
+    File close() {
+        if (mClosed) {
+            return mWriteError == null ? mFile : null;
+        }
+        mClosed = true;
+        try {
+            mPending.put(new Chunk(RecordedSession.TAG_END, new byte[0]));
+            mWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mWriteError = new InterruptedIOException("interrupted while closing");
+        }
+        if (mWriteError == null && !mPartialFile.renameTo(mFile)) {
+            mWriteError = new IOException("could not rename " + mPartialFile);
+        }
+        if (mWriteError != null) {
+            mPartialFile.delete();
+        }
+        Log.i(TAG, "recorded " + mRecordedFrames + " frames, dropped " + mDroppedFrames
+                + ", to " + mFile);
+        return mWriteError == null ? mFile : null;
+    }
+
+    private void writeChunks() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] compressed = new byte[mFrameLength + mFrameLength / 1000 + 64];
+        try {
+            while (true) {
+                Chunk chunk = mPending.take();
+                try {
+                    if (mWriteError == null) {
+                        writeChunk(chunk, deflater, compressed);
+                    }
+                } catch (IOException e) {
+                    Log.e(TAG, "could not write session recording", e);
+                    mWriteError = e;
+                }
+                if (chunk.tag == RecordedSession.TAG_FRAME) {
+                    mFreeFrames.offer(chunk);
+                } else if (chunk.tag == RecordedSession.TAG_END) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Log.w(TAG, "session recorder interrupted");
+        } finally {
+            deflater.end();
+            try {
+                mOut.close();
+            } catch (IOException e) {
+                if (mWriteError == null) {
+                    mWriteError = e;
+                }
+            }
+        }
+    }
+
+    private void writeChunk(Chunk chunk, Deflater deflater, byte[] compressed)
+            throws IOException {
+        if (chunk.tag != RecordedSession.TAG_FRAME) {
+            mOut.writeInt(chunk.tag);
+            mOut.writeInt(chunk.length);
+            mOut.write(chunk.data, 0, chunk.length);
+            if (chunk.tag == RecordedSession.TAG_END) {
+                mOut.flush();
+            }
+            return;
+        }
+
+        deflater.reset();
+        deflater.setInput(chunk.data, 0, chunk.length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                // noise can make a frame slightly larger than raw
+                byte[] larger = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, larger, 0, compressedLength);
+                compressed = larger;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength,
+                    compressed.length - compressedLength);
+        }
+
+        mOut.writeInt(RecordedSession.TAG_FRAME);
+        mOut.writeInt(RecordedSession.FRAME_HEADER_LENGTH + compressedLength);
+        mOut.writeLong(chunk.timestampNanos);
+        mOut.writeInt(chunk.orientation);
+        mOut.writeInt(chunk.length);
+        mOut.write(compressed, 0, compressedLength);
+    }
+}
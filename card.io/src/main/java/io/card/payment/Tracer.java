@@ -0,0 +1,48 @@
+package io.card.payment;
+
+/* Tracer.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Systrace/Perfetto sections for the scan pipeline, off unless
+ * {@link CardIOActivity#EXTRA_ENABLE_TRACING} is set. When off, a section costs one field read.
+ * <p/>
+ * Sections must begin and end on the same thread, and the flag must not change while one is open,
+ * so it is only set when a scan starts.
+ */
+class Tracer {
+    // Build.VERSION_CODES.JELLY_BEAN_MR2, which added android.os.Trace
+    private static final int TRACE_MIN_SDK = 18;
+
+    private static volatile boolean sEnabled;
+
+    private Tracer() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        sEnabled = enabled && Build.VERSION.SDK_INT >= TRACE_MIN_SDK;
+    }
+
+    static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * @param sectionName shown in the trace, at most 127 characters
+     */
+    static void begin(String sectionName) {
+        if (sEnabled) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    static void end() {
+        if (sEnabled) {
+            Trace.endSection();
+        }
+    }
+}
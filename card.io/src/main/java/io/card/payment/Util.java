@@ -15,13 +15,13 @@ import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.graphics.Typeface;
-import android.hardware.Camera;
 import android.os.Build;
 import android.os.Debug;
 import android.util.Log;
 
 import java.io.ByteArrayOutputStream;
-import java.util.List;
+import java.io.File;
+import java.util.Arrays;
 
 /**
  * This class has various static utility methods.
@@ -65,50 +65,46 @@ class Util {
     /* --- HARDWARE SUPPORT --- */
 
     public static boolean hardwareSupported() {
+        return hardwareSupported(null);
+    }
+
+    /**
+     * @param context if not <code>null</code>, the result of the camera probe is persisted across
+     *                process restarts, see {@link DeviceCapabilities}.
+     */
+    public static boolean hardwareSupported(Context context) {
         if (sHardwareSupported == null) {
-            sHardwareSupported = hardwareSupportCheck();
+            Boolean supported = hardwareSupportCheck(context);
+            if (supported == null) {
+                return true;
+            }
+            sHardwareSupported = supported;
         }
         return sHardwareSupported;
     }
 
-    private static boolean hardwareSupportCheck() {
+    private static Boolean hardwareSupportCheck(Context context) {
+        // checked live, and first, so the camera isn't opened when we can't scan anyway
         if (!CardScanner.processorSupported()) {
             Log.w(PUBLIC_LOG_TAG, "- Processor type is not supported");
             return false;
         }
 
-        // Camera needs to open
-        Camera c = null;
-        try {
-            c = Camera.open();
-        } catch (RuntimeException e) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                return true;
-            } else {
-                Log.w(PUBLIC_LOG_TAG, "- Error opening camera: " + e);
-                throw new CameraUnavailableException();
-            }
+        DeviceCapabilities capabilities = DeviceCapabilities.get(context);
+        if (capabilities == null) {
+            // Camera couldn't be opened on 6.0+, most likely because permission hasn't been
+            // granted yet. Assume it's fine, but don't remember the answer.
+            return null;
         }
-        if (c == null) {
+
+        if (!capabilities.cameraPresent) {
             Log.w(PUBLIC_LOG_TAG, "- No camera found");
             return false;
-        } else {
-            List<Camera.Size> list = c.getParameters().getSupportedPreviewSizes();
-            c.release();
-
-            boolean supportsVGA = false;
-
-            for (Camera.Size s : list) {
-                if (s.width == 640 && s.height == 480) {
-                    supportsVGA = true;
-                    break;
-                }
-            }
+        }
 
-            if (!supportsVGA) {
-                Log.w(PUBLIC_LOG_TAG, "- Camera resolution is insufficient");
-                return false;
-            }
+        if (!capabilities.supportsPreviewSize(640, 480)) {
+            Log.w(PUBLIC_LOG_TAG, "- Camera resolution is insufficient");
+            return false;
         }
         return true;
     }
@@ -149,9 +145,29 @@ class Util {
         if (origIntent.getBooleanExtra(CardIOActivity.EXTRA_RETURN_CARD_IMAGE, false)
             && mOverlay != null && mOverlay.getBitmap() != null) {
             ByteArrayOutputStream scaledCardBytes = new ByteArrayOutputStream();
-            mOverlay.getBitmap().compress(Bitmap.CompressFormat.JPEG, 80, scaledCardBytes);
+            Tracer.begin("cardio:encodeJpeg");
+            try {
+                mOverlay.getBitmap().compress(Bitmap.CompressFormat.JPEG, 80, scaledCardBytes);
+            } finally {
+                Tracer.end();
+            }
             dataIntent.putExtra(CardIOActivity.EXTRA_CAPTURED_CARD_IMAGE, scaledCardBytes.toByteArray());
         }
 
     }
+
+    /**
+     * Deletes the oldest files in a directory of recordings, so that at most <code>keep</code>
+     * remain. Recordings are named after the time they were started, so they sort oldest first.
+     */
+    static void deleteOldestFiles(File dir, int keep) {
+        File[] existing = dir.listFiles();
+        if (existing == null || existing.length <= keep) {
+            return;
+        }
+        Arrays.sort(existing);
+        for (int i = 0; i < existing.length - keep; i++) {
+            existing[i].delete();
+        }
+    }
 }
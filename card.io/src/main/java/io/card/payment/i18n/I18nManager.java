@@ -51,9 +51,53 @@ public class I18nManager<E extends Enum<?>> {
         RIGHT_TO_LEFT_LOCALE_SET.add("ar");
     }
 
+    /**
+     * Creates a supported locale the first time it is needed.
+     */
+    public interface LocaleLoader<E extends Enum<?>> {
+        /**
+         * @param localeName one of the names the {@link I18nManager} was created with
+         * @return the locale, never <code>null</code>
+         */
+        SupportedLocale<E> load(String localeName);
+    }
+
+    /**
+     * Supported locale names, in the order they were added. A locale is <code>null</code> until
+     * it has been loaded.
+     */
     private Map<String, SupportedLocale<E>> supportedLocales;
+    private LocaleLoader<E> localeLoader;
     private SupportedLocale<E> currentLocale;
     private Class<E> enumClazz;
+    private volatile ResolvedStrings resolvedStrings;
+
+    /**
+     * Strings of one locale, resolved for the country of one default {@link Locale}, indexed by
+     * key ordinal. Entries are filled in on first use.
+     */
+    private class ResolvedStrings {
+        final SupportedLocale<E> locale;
+        final Locale defaultLocale;
+        final String countryCode;
+        final String[] strings;
+
+        ResolvedStrings(SupportedLocale<E> locale, Locale defaultLocale) {
+            this.locale = locale;
+            this.defaultLocale = defaultLocale;
+            this.countryCode = getCountryCode(defaultLocale);
+            this.strings = new String[enumClazz.getEnumConstants().length];
+        }
+
+        String get(E key) {
+            String s = strings[key.ordinal()];
+            if (null == s) {
+                s = resolveString(key, locale, countryCode);
+                strings[key.ordinal()] = s;
+            }
+            return s;
+        }
+    }
 
     public I18nManager(Class<E> enumClazz, List<SupportedLocale<E>> locales) {
         this.supportedLocales = new LinkedHashMap<String, SupportedLocale<E>>();
@@ -61,7 +105,7 @@ public class I18nManager<E extends Enum<?>> {
 
         // add all supported locales
         for (SupportedLocale<E> locale : locales) {
-            addLocale(locale);
+            addLocale(locale.getName(), locale);
         }
 
         // start off with defaults
@@ -69,21 +113,28 @@ public class I18nManager<E extends Enum<?>> {
     }
 
     /**
-     * Prints out error messages for missing localizations of display messages
+     * Creates a manager that only loads a locale when it is first used.
      *
-     * @param localeName
+     * @param localeNames names of all supported locales
+     * @param localeLoader creates the locale for one of the localeNames
      */
-    private void logMissingLocalizations(String localeName) {
-        List<String> errorMessages = getMissingLocaleMessages(localeName);
+    public I18nManager(Class<E> enumClazz, List<String> localeNames,
+                       LocaleLoader<E> localeLoader) {
+        this.supportedLocales = new LinkedHashMap<String, SupportedLocale<E>>();
+        this.localeLoader = localeLoader;
+        this.enumClazz = enumClazz;
 
-        for (String errorMessage : errorMessages) {
-            Log.i(TAG, errorMessage);
+        for (String localeName : localeNames) {
+            addLocale(localeName, null);
         }
+
+        // start off with defaults
+        setLanguage(null);
     }
 
     /**
-     * Returns a list of all missing localizations over all locales. Useful for
-     * testing.
+     * Returns a list of all missing localizations over all locales. This loads every locale, so
+     * it is only meant for testing.
      *
      * @return
      */
@@ -102,7 +153,7 @@ public class I18nManager<E extends Enum<?>> {
      * @return
      */
     private List<String> getMissingLocaleMessages(String localeName) {
-        SupportedLocale<E> locale = supportedLocales.get(localeName);
+        SupportedLocale<E> locale = getLocale(localeName);
         List<String> errorMessages = new ArrayList<String>();
 
         for (E key : enumClazz.getEnumConstants()) {
@@ -125,6 +176,7 @@ public class I18nManager<E extends Enum<?>> {
     public void setLanguage(String localeSpecifier) {
         // reset current locale since we're trying to set it to something new.
         currentLocale = null;
+        resolvedStrings = null;
 
         currentLocale = getLocaleFromSpecifier(localeSpecifier);
 
@@ -157,7 +209,7 @@ public class I18nManager<E extends Enum<?>> {
         if (null == foundLocale) {
             // use english
             Log.d(TAG, "defaulting to english");
-            foundLocale = supportedLocales.get("en");
+            foundLocale = getLocale("en");
         }
 
         assert foundLocale != null;
@@ -200,7 +252,7 @@ public class I18nManager<E extends Enum<?>> {
         // special cases taken care of first
         if (SPECIAL_LOCALE_MAP.containsKey(localeSpecifier)) {
             String localeToUse = SPECIAL_LOCALE_MAP.get(localeSpecifier);
-            supportedLocale = supportedLocales.get(localeToUse);
+            supportedLocale = getLocale(localeToUse);
             Log.d(TAG, "Overriding locale specifier " + localeSpecifier + " with " + localeToUse);
         }
 
@@ -215,29 +267,43 @@ public class I18nManager<E extends Enum<?>> {
                 // to "en_GB"
                 language_country = localeSpecifier + "_" + Locale.getDefault().getCountry();
             }
-            supportedLocale = supportedLocales.get(language_country);
+            supportedLocale = getLocale(language_country);
         }
 
         // Next, fall back to the exact requested locale (specifically handles zh-Hans case):
         if (null == supportedLocale) {
-            supportedLocale = supportedLocales.get(localeSpecifier);
+            supportedLocale = getLocale(localeSpecifier);
         }
 
         // Next, fall back to just the stripped off <language>:
         if (null == supportedLocale) {
             String languageCode = localeSpecifier.substring(0, 2);
-            supportedLocale = supportedLocales.get(languageCode);
+            supportedLocale = getLocale(languageCode);
         }
 
         return supportedLocale;
     }
 
     public String getString(E key) {
-        return getString(key, currentLocale);
+        ResolvedStrings resolved = resolvedStrings;
+        Locale defaultLocale = Locale.getDefault();
+        if (null == resolved || resolved.locale != currentLocale
+                || resolved.defaultLocale != defaultLocale) {
+            resolved = new ResolvedStrings(currentLocale, defaultLocale);
+            resolvedStrings = resolved;
+        }
+        return resolved.get(key);
     }
 
     public String getString(E key, SupportedLocale<E> localeToTranslate) {
-        String countryCode = Locale.getDefault().getCountry().toUpperCase(Locale.US);
+        return resolveString(key, localeToTranslate, getCountryCode(Locale.getDefault()));
+    }
+
+    private static String getCountryCode(Locale defaultLocale) {
+        return defaultLocale.getCountry().toUpperCase(Locale.US);
+    }
+
+    private String resolveString(E key, SupportedLocale<E> localeToTranslate, String countryCode) {
         String s = localeToTranslate.getAdaptedDisplay(key, countryCode);
 
         if (s == null) {
@@ -248,7 +314,7 @@ public class I18nManager<E extends Enum<?>> {
 
             // return what we have in the canonical "en"
             // and if that's missing fake it
-            s = supportedLocales.get("en").getAdaptedDisplay(key, countryCode);
+            s = getLocale("en").getAdaptedDisplay(key, countryCode);
         }
 
         if (s == null) {
@@ -267,10 +333,10 @@ public class I18nManager<E extends Enum<?>> {
     /**
      * Adds a supported locale
      *
-     * @param supportedLocale
+     * @param localeName
+     * @param supportedLocale the locale, or <code>null</code> to load it on first use
      */
-    private void addLocale(SupportedLocale<E> supportedLocale) {
-        String localeName = supportedLocale.getName();
+    private void addLocale(String localeName, SupportedLocale<E> supportedLocale) {
         if (null == localeName) {
             throw new RuntimeException("Null localeName");
         }
@@ -278,8 +344,28 @@ public class I18nManager<E extends Enum<?>> {
             throw new RuntimeException("Locale " + localeName + " already added");
         }
         supportedLocales.put(localeName, supportedLocale);
+    }
 
-        logMissingLocalizations(localeName);
+    /**
+     * Returns the supported locale with exactly the given name, loading it if necessary, or
+     * <code>null</code> if there is no such locale.
+     *
+     * @param localeName
+     * @return
+     */
+    private synchronized SupportedLocale<E> getLocale(String localeName) {
+        if (!supportedLocales.containsKey(localeName)) {
+            return null;
+        }
+        SupportedLocale<E> locale = supportedLocales.get(localeName);
+        if (null == locale) {
+            locale = localeLoader.load(localeName);
+            if (null == locale) {
+                throw new RuntimeException("Could not load locale " + localeName);
+            }
+            supportedLocales.put(localeName, locale);
+        }
+        return locale;
     }
 
     /**
@@ -51,10 +51,14 @@ public final class LocalizedStrings {
     private static final I18nManager<StringKey> i18nManager;
 
     static {
-        /**
-         * TODO optimize this for lazy loading. Should be relatively easy.
-         */
-        i18nManager = new I18nManager<>(StringKey.class, LocalizedStringsList.ALL_LOCALES);
+        // only the locales actually used get loaded
+        i18nManager = new I18nManager<>(StringKey.class, LocalizedStringsList.ALL_LOCALE_NAMES,
+                new I18nManager.LocaleLoader<StringKey>() {
+                    @Override
+                    public SupportedLocale<StringKey> load(String localeName) {
+                        return LocalizedStringsList.createLocale(localeName);
+                    }
+                });
     }
 
     /**
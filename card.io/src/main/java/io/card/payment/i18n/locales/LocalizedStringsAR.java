@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.121072 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsAR implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "إلغاء";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express‏";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover‏";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB‏";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard‏";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa‏";
+        mDisplay[StringKey.DONE.ordinal()] = "تم";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV‏";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "الرمز البريدي";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "اسم صاحب البطاقة";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "تاريخ انتهاء الصلاحية";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/YY‏";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "امسك البطاقة هنا.\n ستمسح تلقائيا.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "لوحة المفاتيح…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "رقم البطاقة";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "تفاصيل البطاقة";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "هذا الجهاز لا يمكنه استعمال الكاميرا لقراءة أرقام البطاقة.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "كاميرا الجهاز غير متاحة.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "الجهاز حدث به خطا غير متوقع عند فتح الكاميرا.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsAR implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsAR() {
-        mDisplay.put(StringKey.CANCEL, "إلغاء");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express‏");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover‏");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB‏");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard‏");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa‏");
-        mDisplay.put(StringKey.DONE, "تم");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV‏");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "الرمز البريدي");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "اسم صاحب البطاقة");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "تاريخ انتهاء الصلاحية");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/YY‏");
-        mDisplay.put(StringKey.SCAN_GUIDE, "امسك البطاقة هنا.\n ستمسح تلقائيا.");
-        mDisplay.put(StringKey.KEYBOARD, "لوحة المفاتيح…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "رقم البطاقة");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "تفاصيل البطاقة");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "هذا الجهاز لا يمكنه استعمال الكاميرا لقراءة أرقام البطاقة.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "كاميرا الجهاز غير متاحة.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "الجهاز حدث به خطا غير متوقع عند فتح الكاميرا.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.124677 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsDA implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Annuller";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Udført";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "Kontrolcifre";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Postnummer";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Kortindehaverens navn";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Udløbsdato";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/ÅÅ";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Hold kortet her.\nDet scannes automatisk.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Tastatur…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Kortnummer";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Kortoplysninger";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "Denne enhed kan ikke anvende kameraet til at læse kortnumre.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Enhed kamera ikke er tilgængelig.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Enheden havde en uventet fejl under åbning af kamera.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsDA implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsDA() {
-        mDisplay.put(StringKey.CANCEL, "Annuller");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Udført");
-        mDisplay.put(StringKey.ENTRY_CVV, "Kontrolcifre");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Postnummer");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Kortindehaverens navn");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Udløbsdato");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/ÅÅ");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Hold kortet her.\nDet scannes automatisk.");
-        mDisplay.put(StringKey.KEYBOARD, "Tastatur…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Kortnummer");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Kortoplysninger");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "Denne enhed kan ikke anvende kameraet til at læse kortnumre.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Enhed kamera ikke er tilgængelig.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Enheden havde en uventet fejl under åbning af kamera.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
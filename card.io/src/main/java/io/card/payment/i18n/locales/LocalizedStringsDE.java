@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.126851 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsDE implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Abbrechen";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Fertig";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "Prüfnr.";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "PLZ";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Karteninhaber";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Gültig bis";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/JJ";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Kreditkarte hierhin halten.\nSie wird automatisch gelesen.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Tastatur…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Kartennummer";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Kreditkartendetails";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "Dieses Gerät kann mit der Kamera keine Kreditkartennummern lesen.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Die Kamera ist nicht verfügbar.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Beim Öffnen der Kamera ist ein unerwarteter Fehler aufgetreten.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsDE implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsDE() {
-        mDisplay.put(StringKey.CANCEL, "Abbrechen");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Fertig");
-        mDisplay.put(StringKey.ENTRY_CVV, "Prüfnr.");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "PLZ");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Karteninhaber");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Gültig bis");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/JJ");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Kreditkarte hierhin halten.\nSie wird automatisch gelesen.");
-        mDisplay.put(StringKey.KEYBOARD, "Tastatur…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Kartennummer");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Kreditkartendetails");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "Dieses Gerät kann mit der Kamera keine Kreditkartennummern lesen.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Die Kamera ist nicht verfügbar.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Beim Öffnen der Kamera ist ein unerwarteter Fehler aufgetreten.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.133605 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsEN_GB implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Cancel";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Done";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Postcode";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Cardholder Name";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Expires";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/YY";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Hold card here.\nIt will scan automatically.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Keyboard…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Card Number";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Card Details";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "This device cannot use the camera to read card numbers.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Device camera is unavailable.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "The device had an unexpected error opening the camera.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsEN_GB implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsEN_GB() {
-        mDisplay.put(StringKey.CANCEL, "Cancel");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Done");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Postcode");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Cardholder Name");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Expires");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/YY");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Hold card here.\nIt will scan automatically.");
-        mDisplay.put(StringKey.KEYBOARD, "Keyboard…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Card Number");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Card Details");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "This device cannot use the camera to read card numbers.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Device camera is unavailable.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "The device had an unexpected error opening the camera.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
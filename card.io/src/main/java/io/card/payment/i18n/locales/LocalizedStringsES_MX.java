@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.140560 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsES_MX implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Cancelar";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Listo";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Código postal";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Nombre del titular";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Vence";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/AA";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Coloque la tarjeta aquí.\nSe escaneará automáticamente.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Teclado…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "N.° de tarjeta";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Detalles de la tarjeta";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "Este dispositivo no puede usar la cámara para leer números de tarjeta.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "La cámara del dispositivo no está disponible.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "El dispositivo tuvo un error inesperado al abrir la cámara.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsES_MX implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsES_MX() {
-        mDisplay.put(StringKey.CANCEL, "Cancelar");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Listo");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Código postal");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Nombre del titular");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Vence");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/AA");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Coloque la tarjeta aquí.\nSe escaneará automáticamente.");
-        mDisplay.put(StringKey.KEYBOARD, "Teclado…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "N.° de tarjeta");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Detalles de la tarjeta");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "Este dispositivo no puede usar la cámara para leer números de tarjeta.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "La cámara del dispositivo no está disponible.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "El dispositivo tuvo un error inesperado al abrir la cámara.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.145036 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsHE implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "ביטול";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "אמריקן אקספרס";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover‏";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB‏";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "מאסטרקארד";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "ויזה";
+        mDisplay[StringKey.DONE.ordinal()] = "בוצע";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "קוד אימות כרטיס";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "מיקוד";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "שם בעל הכרטיס";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "תאריך תפוגה";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/YY‏";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "החזק את הכרטיס כאן.\nהסריקה תתבצע באופן אוטומטי.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "מקלדת…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "מספר כרטיס";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "פרטי כרטיס";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "המכשיר אינו מסוגל להשתמש במצלמה לקריאת מספרי כרטיס.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "מצלמת המכשיר אינה זמינה.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "המכשיר נתקל בשגיאה בלתי צפויה בזמן הפעלת המצלמה.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsHE implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsHE() {
-        mDisplay.put(StringKey.CANCEL, "ביטול");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "אמריקן אקספרס");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover‏");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB‏");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "מאסטרקארד");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "ויזה");
-        mDisplay.put(StringKey.DONE, "בוצע");
-        mDisplay.put(StringKey.ENTRY_CVV, "קוד אימות כרטיס");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "מיקוד");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "שם בעל הכרטיס");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "תאריך תפוגה");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/YY‏");
-        mDisplay.put(StringKey.SCAN_GUIDE, "החזק את הכרטיס כאן.\nהסריקה תתבצע באופן אוטומטי.");
-        mDisplay.put(StringKey.KEYBOARD, "מקלדת…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "מספר כרטיס");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "פרטי כרטיס");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "המכשיר אינו מסוגל להשתמש במצלמה לקריאת מספרי כרטיס.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "מצלמת המכשיר אינה זמינה.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "המכשיר נתקל בשגיאה בלתי צפויה בזמן הפעלת המצלמה.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.149443 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsIT implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Annulla";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "OK";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "CAP";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Titolare della carta";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Scadenza";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/AA";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Inquadra la carta.\nLa scansione è automatica.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Tastiera…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Numero di carta";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Dati carta";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "La fotocamera non legge il numero di carta.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Fotocamera non disponibile.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Errore inatteso nell’apertura della fotocamera.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsIT implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsIT() {
-        mDisplay.put(StringKey.CANCEL, "Annulla");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "OK");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "CAP");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Titolare della carta");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Scadenza");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/AA");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Inquadra la carta.\nLa scansione è automatica.");
-        mDisplay.put(StringKey.KEYBOARD, "Tastiera…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Numero di carta");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Dati carta");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "La fotocamera non legge il numero di carta.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Fotocamera non disponibile.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Errore inatteso nell’apertura della fotocamera.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
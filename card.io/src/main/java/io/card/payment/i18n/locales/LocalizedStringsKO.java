@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.153840 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsKO implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "취소";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "완료";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "우편번호";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "카드 소유자 이름";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "유효기간";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM / YY";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "카드를 여기에 갖다 대세요.\n자동으로 스캔됩니다.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "키보드…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "카드 번호";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "카드 세부정보";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "기기가 카메라를 이용한 카드 숫자 판독을 지원하지 않습니다.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "기기에서 카메라를 사용할 수 없습니다.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "기기에서 카메라를 여는 동안 예상치 못한 오류가 발생했습니다.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsKO implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsKO() {
-        mDisplay.put(StringKey.CANCEL, "취소");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "완료");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "우편번호");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "카드 소유자 이름");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "유효기간");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM / YY");
-        mDisplay.put(StringKey.SCAN_GUIDE, "카드를 여기에 갖다 대세요.\n자동으로 스캔됩니다.");
-        mDisplay.put(StringKey.KEYBOARD, "키보드…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "카드 번호");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "카드 세부정보");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "기기가 카메라를 이용한 카드 숫자 판독을 지원하지 않습니다.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "기기에서 카메라를 사용할 수 없습니다.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "기기에서 카메라를 여는 동안 예상치 못한 오류가 발생했습니다.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,45 +1,140 @@
 package io.card.payment.i18n.locales;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
-// Generated on 2014-12-10 11:29:25.185885 via script:
-// /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Generated via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsList {
-    public static final List<SupportedLocale<StringKey>> ALL_LOCALES = new ArrayList<>();
-
-    static {
-        ALL_LOCALES.add(new LocalizedStringsAR());
-        ALL_LOCALES.add(new LocalizedStringsDA());
-        ALL_LOCALES.add(new LocalizedStringsDE());
-        ALL_LOCALES.add(new LocalizedStringsEN());
-        ALL_LOCALES.add(new LocalizedStringsEN_AU());
-        ALL_LOCALES.add(new LocalizedStringsEN_GB());
-        ALL_LOCALES.add(new LocalizedStringsES());
-        ALL_LOCALES.add(new LocalizedStringsES_MX());
-        ALL_LOCALES.add(new LocalizedStringsFR());
-        ALL_LOCALES.add(new LocalizedStringsHE());
-        ALL_LOCALES.add(new LocalizedStringsIS());
-        ALL_LOCALES.add(new LocalizedStringsIT());
-        ALL_LOCALES.add(new LocalizedStringsJA());
-        ALL_LOCALES.add(new LocalizedStringsKO());
-        ALL_LOCALES.add(new LocalizedStringsMS());
-        ALL_LOCALES.add(new LocalizedStringsNB());
-        ALL_LOCALES.add(new LocalizedStringsNL());
-        ALL_LOCALES.add(new LocalizedStringsPL());
-        ALL_LOCALES.add(new LocalizedStringsPT());
-        ALL_LOCALES.add(new LocalizedStringsPT_BR());
-        ALL_LOCALES.add(new LocalizedStringsRU());
-        ALL_LOCALES.add(new LocalizedStringsSV());
-        ALL_LOCALES.add(new LocalizedStringsTH());
-        ALL_LOCALES.add(new LocalizedStringsTR());
-        ALL_LOCALES.add(new LocalizedStringsZH_HANS());
-        ALL_LOCALES.add(new LocalizedStringsZH_HANT());
-        ALL_LOCALES.add(new LocalizedStringsZH_HANT_TW());
+    public static final List<String> ALL_LOCALE_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "ar",
+            "da",
+            "de",
+            "en",
+            "en_AU",
+            "en_GB",
+            "es",
+            "es_MX",
+            "fr",
+            "he",
+            "is",
+            "it",
+            "ja",
+            "ko",
+            "ms",
+            "nb",
+            "nl",
+            "pl",
+            "pt",
+            "pt_BR",
+            "ru",
+            "sv",
+            "th",
+            "tr",
+            "zh-Hans",
+            "zh-Hant",
+            "zh-Hant_TW"
+    ));
+
+    /**
+     * All supported locales, in the order of {@link #ALL_LOCALE_NAMES}. A locale's string table
+     * is loaded when the locale is first read from this list.
+     *
+     * @deprecated use {@link #ALL_LOCALE_NAMES} and {@link #createLocale(String)}.
+     */
+    @Deprecated
+    public static final List<SupportedLocale<StringKey>> ALL_LOCALES = new LazyLocaleList();
+
+    /**
+     * Creates the locale with the given name, loading its string table. Returns <code>null</code>
+     * if the locale is not supported.
+     */
+    public static SupportedLocale<StringKey> createLocale(String localeName) {
+        switch (localeName) {
+            case "ar":
+                return new LocalizedStringsAR();
+            case "da":
+                return new LocalizedStringsDA();
+            case "de":
+                return new LocalizedStringsDE();
+            case "en":
+                return new LocalizedStringsEN();
+            case "en_AU":
+                return new LocalizedStringsEN_AU();
+            case "en_GB":
+                return new LocalizedStringsEN_GB();
+            case "es":
+                return new LocalizedStringsES();
+            case "es_MX":
+                return new LocalizedStringsES_MX();
+            case "fr":
+                return new LocalizedStringsFR();
+            case "he":
+                return new LocalizedStringsHE();
+            case "is":
+                return new LocalizedStringsIS();
+            case "it":
+                return new LocalizedStringsIT();
+            case "ja":
+                return new LocalizedStringsJA();
+            case "ko":
+                return new LocalizedStringsKO();
+            case "ms":
+                return new LocalizedStringsMS();
+            case "nb":
+                return new LocalizedStringsNB();
+            case "nl":
+                return new LocalizedStringsNL();
+            case "pl":
+                return new LocalizedStringsPL();
+            case "pt":
+                return new LocalizedStringsPT();
+            case "pt_BR":
+                return new LocalizedStringsPT_BR();
+            case "ru":
+                return new LocalizedStringsRU();
+            case "sv":
+                return new LocalizedStringsSV();
+            case "th":
+                return new LocalizedStringsTH();
+            case "tr":
+                return new LocalizedStringsTR();
+            case "zh-Hans":
+                return new LocalizedStringsZH_HANS();
+            case "zh-Hant":
+                return new LocalizedStringsZH_HANT();
+            case "zh-Hant_TW":
+                return new LocalizedStringsZH_HANT_TW();
+            default:
+                return null;
+        }
+    }
+
+    private static class LazyLocaleList extends AbstractList<SupportedLocale<StringKey>> {
+        private final List<SupportedLocale<StringKey>> mLocales = new ArrayList<>(
+                Collections.<SupportedLocale<StringKey>>nCopies(ALL_LOCALE_NAMES.size(), null));
+
+        @Override
+        public synchronized SupportedLocale<StringKey> get(int index) {
+            SupportedLocale<StringKey> locale = mLocales.get(index);
+            if (locale == null) {
+                locale = createLocale(ALL_LOCALE_NAMES.get(index));
+                mLocales.set(index, locale);
+            }
+            return locale;
+        }
+
+        @Override
+        public int size() {
+            return mLocales.size();
+        }
     }
 }
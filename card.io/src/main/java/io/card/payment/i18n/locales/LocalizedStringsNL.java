@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.160445 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsNL implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Annuleren";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Gereed";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "CVV";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Postcode";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Naam kaarthouder";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Vervaldatum";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/JJ";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Houd uw kaart hier.\nScannen gaat automatisch.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Toetsenbord…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Creditcardnummer";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Kaartgegevens";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "Met de camera van dit apparaat kunnen geen kaartnummers worden gelezen.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Camera apparaat niet beschikbaar.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Er is een onverwachte fout opgetreden bij het starten van de camera.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsNL implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsNL() {
-        mDisplay.put(StringKey.CANCEL, "Annuleren");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Gereed");
-        mDisplay.put(StringKey.ENTRY_CVV, "CVV");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Postcode");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Naam kaarthouder");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Vervaldatum");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/JJ");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Houd uw kaart hier.\nScannen gaat automatisch.");
-        mDisplay.put(StringKey.KEYBOARD, "Toetsenbord…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Creditcardnummer");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Kaartgegevens");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "Met de camera van dit apparaat kunnen geen kaartnummers worden gelezen.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Camera apparaat niet beschikbaar.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Er is een onverwachte fout opgetreden bij het starten van de camera.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.162694 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsPL implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Anuluj";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Gotowe";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "Kod CVV2/CVC2";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Kod pocztowy";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Imię i nazwisko posiadacza karty";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Wygasa";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "MM/RR";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Przytrzymaj kartę tutaj.\nZostanie ona zeskanowana automatycznie.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Klawiatura…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Numer karty";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Dane karty";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "Na tym urządzeniu nie można odczytać numeru karty za pomocą aparatu.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Aparat na tym urządzeniu jest niedostepny.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Przy otwieraniu aparatu na tym urządzeniu wystąpił nieoczekiwany błąd.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsPL implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsPL() {
-        mDisplay.put(StringKey.CANCEL, "Anuluj");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Gotowe");
-        mDisplay.put(StringKey.ENTRY_CVV, "Kod CVV2/CVC2");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Kod pocztowy");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Imię i nazwisko posiadacza karty");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Wygasa");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "MM/RR");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Przytrzymaj kartę tutaj.\nZostanie ona zeskanowana automatycznie.");
-        mDisplay.put(StringKey.KEYBOARD, "Klawiatura…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Numer karty");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Dane karty");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "Na tym urządzeniu nie można odczytać numeru karty za pomocą aparatu.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Aparat na tym urządzeniu jest niedostepny.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Przy otwieraniu aparatu na tym urządzeniu wystąpił nieoczekiwany błąd.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
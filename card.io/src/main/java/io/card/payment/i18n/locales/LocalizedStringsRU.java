@@ -1,19 +1,39 @@
 package io.card.payment.i18n.locales;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.card.payment.i18n.StringKey;
 import io.card.payment.i18n.SupportedLocale;
 
 // Class autogenerated!  Do not modify.
 // Generated on 2014-12-10 11:29:25.169528 via script:
 // /Users/twhipple/Documents/buffalo/lib-i18n/i18n/script/generate_android_i18n.py -java_src_path src/ -java_gen_path gen/ -stringkey_path io/card/payment/i18n/ -strings_path ../strings/projects/card.io/strings/ --strict
+// Converted to static ordinal-indexed arrays via script:
+// card.io/scripts/generate_locale_classes.py
 
 public class LocalizedStringsRU implements SupportedLocale<StringKey> {
 
-    private static Map<StringKey, String> mDisplay = new HashMap<>();
-    private static Map<String, String> mAdapted = new HashMap<>();
+    private static final String[] mDisplay = new String[StringKey.values().length];
+
+    static {
+        mDisplay[StringKey.CANCEL.ordinal()] = "Отмена";
+        mDisplay[StringKey.CARDTYPE_AMERICANEXPRESS.ordinal()] = "American Express";
+        mDisplay[StringKey.CARDTYPE_DISCOVER.ordinal()] = "Discover";
+        mDisplay[StringKey.CARDTYPE_JCB.ordinal()] = "JCB";
+        mDisplay[StringKey.CARDTYPE_MASTERCARD.ordinal()] = "MasterCard";
+        mDisplay[StringKey.CARDTYPE_VISA.ordinal()] = "Visa";
+        mDisplay[StringKey.DONE.ordinal()] = "Готово";
+        mDisplay[StringKey.ENTRY_CVV.ordinal()] = "Код безопасности";
+        mDisplay[StringKey.ENTRY_POSTAL_CODE.ordinal()] = "Индекс";
+        mDisplay[StringKey.ENTRY_CARDHOLDER_NAME.ordinal()] = "Имя и фамилия владельца";
+        mDisplay[StringKey.ENTRY_EXPIRES.ordinal()] = "Действ. до";
+        mDisplay[StringKey.EXPIRES_PLACEHOLDER.ordinal()] = "ММ/ГГ";
+        mDisplay[StringKey.SCAN_GUIDE.ordinal()] = "Держите карту внутри рамки.\nОна будет считана автоматически.";
+        mDisplay[StringKey.KEYBOARD.ordinal()] = "Клавиатура…";
+        mDisplay[StringKey.ENTRY_CARD_NUMBER.ordinal()] = "Номер карты";
+        mDisplay[StringKey.MANUAL_ENTRY_TITLE.ordinal()] = "Ввести данные вручную";
+        mDisplay[StringKey.ERROR_NO_DEVICE_SUPPORT.ordinal()] = "В данном устройстве нет опции считывания номера карты с помощью фотокамеры.";
+        mDisplay[StringKey.ERROR_CAMERA_CONNECT_FAIL.ordinal()] = "Фотокамера устройства недоступна.";
+        mDisplay[StringKey.ERROR_CAMERA_UNEXPECTED_FAIL.ordinal()] = "Возникла незапланированная ошибка при открытии фотокамеры устройства.";
+    }
 
     @Override
     public String getName() {
@@ -22,35 +42,7 @@ public class LocalizedStringsRU implements SupportedLocale<StringKey> {
 
     @Override
     public String getAdaptedDisplay(StringKey key, String country) {
-        String adaptedKey = key.toString() + "|" + country;
-        if (mAdapted.containsKey(adaptedKey)) {
-            return mAdapted.get(adaptedKey);
-        } else {
-            return mDisplay.get(key);
-        }
-    }
-
-    public LocalizedStringsRU() {
-        mDisplay.put(StringKey.CANCEL, "Отмена");
-        mDisplay.put(StringKey.CARDTYPE_AMERICANEXPRESS, "American Express");
-        mDisplay.put(StringKey.CARDTYPE_DISCOVER, "Discover");
-        mDisplay.put(StringKey.CARDTYPE_JCB, "JCB");
-        mDisplay.put(StringKey.CARDTYPE_MASTERCARD, "MasterCard");
-        mDisplay.put(StringKey.CARDTYPE_VISA, "Visa");
-        mDisplay.put(StringKey.DONE, "Готово");
-        mDisplay.put(StringKey.ENTRY_CVV, "Код безопасности");
-        mDisplay.put(StringKey.ENTRY_POSTAL_CODE, "Индекс");
-        mDisplay.put(StringKey.ENTRY_CARDHOLDER_NAME, "Имя и фамилия владельца");
-        mDisplay.put(StringKey.ENTRY_EXPIRES, "Действ. до");
-        mDisplay.put(StringKey.EXPIRES_PLACEHOLDER, "ММ/ГГ");
-        mDisplay.put(StringKey.SCAN_GUIDE, "Держите карту внутри рамки.\nОна будет считана автоматически.");
-        mDisplay.put(StringKey.KEYBOARD, "Клавиатура…");
-        mDisplay.put(StringKey.ENTRY_CARD_NUMBER, "Номер карты");
-        mDisplay.put(StringKey.MANUAL_ENTRY_TITLE, "Ввести данные вручную");
-        mDisplay.put(StringKey.ERROR_NO_DEVICE_SUPPORT, "В данном устройстве нет опции считывания номера карты с помощью фотокамеры.");
-        mDisplay.put(StringKey.ERROR_CAMERA_CONNECT_FAIL, "Фотокамера устройства недоступна.");
-        mDisplay.put(StringKey.ERROR_CAMERA_UNEXPECTED_FAIL, "Возникла незапланированная ошибка при открытии фотокамеры устройства.");
-
         // no adapted_translations found
+        return mDisplay[key.ordinal()];
     }
 }
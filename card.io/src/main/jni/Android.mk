@@ -35,7 +35,7 @@ include $(CLEAR_VARS)
 ifneq (,$(filter $(TARGET_ARCH_ABI),armeabi-v7a x86 arm64-v8a x86_64))
 
 LOCAL_MODULE := cardioRecognizer
-LOCAL_LDLIBS := -llog -L$(SYSROOT)/usr/lib -lz -ljnigraphics
+LOCAL_LDLIBS := -llog -L$(SYSROOT)/usr/lib -lz -ljnigraphics -ldl
 LOCAL_SHARED_LIBRARIES := cpufeatures opencv_imgproc opencv_core 
 
 LOCAL_C_INCLUDES := $(LOCAL_PATH)/$(LOCAL_DMZ_DIR) $(LOCAL_PATH)/$(LOCAL_DMZ_DIR)/cv
@@ -66,7 +66,7 @@ include $(CLEAR_VARS)
 ifneq (,$(filter $(TARGET_ARCH_ABI),armeabi-v7a x86 arm64-v8a x86_64))
 
 LOCAL_MODULE := cardioRecognizer_tegra2
-LOCAL_LDLIBS := -llog -L$(SYSROOT)/usr/lib -lz -ljnigraphics
+LOCAL_LDLIBS := -llog -L$(SYSROOT)/usr/lib -lz -ljnigraphics -ldl
 LOCAL_SHARED_LIBRARIES := cpufeatures opencv_imgproc opencv_core 
 
 LOCAL_C_INCLUDES := $(LOCAL_PATH)/$(LOCAL_DMZ_DIR) $(LOCAL_PATH)/$(LOCAL_DMZ_DIR)/cv
@@ -4,8 +4,12 @@
  */
 
 #include <stdio.h>
+#include <stdlib.h>
 #include <string.h>
+#include <pthread.h>
+#include <dlfcn.h>
 #include <jni.h>
+#include <cpu-features.h>
 #include <android/log.h>
 #include <android/bitmap.h>
 
@@ -30,6 +34,95 @@ static bool flipped;
 static int unblurDigits;
 static float minFocusScore;
 
+/* In luma-only mode the CrCb plane of a frame is never read. Edge detection gets a flat, neutral
+ * chroma image instead, allocated once, and the card image is rendered in grayscale. */
+static bool lumaOnly;
+static IplImage *neutralChroma = NULL;
+
+/* State of the fast card presence test, see card_possibly_present(). The counts are since the last
+ * nResetAnalytics(): frames the test rejected, how many of those still went through edge detection,
+ * and how many of those had at least one edge found. */
+static bool presenceAudit;
+static int presenceConsecutiveRejections;
+static int presenceRejected;
+static int presenceRechecked;
+static int presenceRecheckedWithEdges;
+
+/* Systrace/Perfetto sections around the native stages, see CardIOActivity.EXTRA_ENABLE_TRACING.
+ * ATrace_beginSection() only exists from API 23 on and we build against android-16, so it is
+ * looked up in libandroid when tracing gets enabled. While disabled a section costs one load. */
+typedef void (*atrace_begin_section_fn)(const char *sectionName);
+typedef void (*atrace_end_section_fn)(void);
+
+static atrace_begin_section_fn atraceBeginSection = NULL;
+static atrace_end_section_fn atraceEndSection = NULL;
+static volatile bool traceEnabled = false;
+
+struct TraceSection {
+  bool active;
+
+  TraceSection(const char *sectionName) : active(traceEnabled) {
+    if (active) {
+      atraceBeginSection(sectionName);
+    }
+  }
+
+  ~TraceSection() {
+    if (active) {
+      atraceEndSection();
+    }
+  }
+};
+
+/* Two-stage scan pipeline.
+ *
+ * Stage 1 (the caller of nScanFrame) does focus scoring, edge detection and the card transform.
+ * Stage 2 (a worker thread) runs scanner_add_frame_with_expiry on the warped card, so that
+ * recognition of frame N overlaps edge detection of frame N+1. The stages are connected by a
+ * bounded FIFO, so frames reach the scanner in capture order.
+ *
+ * A completed result is handed back to stage 1, which reports it from the next nScanFrame call.
+ * From then on stage 2 drops frames until the scanner is reset, so that scannerState still
+ * describes the completing frame when stage 1 blurs its digits.
+ *
+ * Locking: queue_mutex guards the queue, the result handoff and `flipped`. scanner_mutex guards
+ * scannerState. `generation` and `scanner_done` only change while both are held, so the worker
+ * can check them while holding scanner_mutex alone.
+ */
+#define PIPELINE_QUEUE_SIZE 2
+
+typedef struct {
+  IplImage *cardY;
+  IplImage *cb;
+  IplImage *cr;
+  dmz_corner_points corner_points;
+  int orientation;
+  float focus_score;
+  bool flipped;
+  bool scan_expiry;
+} PipelineFrame;
+
+static struct {
+  bool running;
+  pthread_t thread;
+  pthread_mutex_t queue_mutex;
+  pthread_mutex_t scanner_mutex;
+  pthread_cond_t not_empty;
+  pthread_cond_t not_full;
+  PipelineFrame queue[PIPELINE_QUEUE_SIZE];
+  int head;
+  int count;
+  unsigned int generation;
+  bool scanner_done;
+  bool has_result;
+  ScannerResult result;
+  PipelineFrame result_frame;
+} pipeline = {
+  false, 0,
+  PTHREAD_MUTEX_INITIALIZER, PTHREAD_MUTEX_INITIALIZER,
+  PTHREAD_COND_INITIALIZER, PTHREAD_COND_INITIALIZER,
+};
+
 static struct {
   jclass classRef;
   jfieldID top;
@@ -46,6 +139,7 @@ static struct {
   jfieldID leftEdge;
   jfieldID rightEdge;
   jfieldID focusScore;
+  jfieldID cardAbsent;
   jfieldID prediction;
   jfieldID expiry_month;
   jfieldID expiry_year;
@@ -131,6 +225,7 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *vm, void *reserved) {
   detectionInfoId.leftEdge =  env->GetFieldID(dInfoClass, "leftEdge", "Z");
   detectionInfoId.rightEdge = env->GetFieldID(dInfoClass, "rightEdge", "Z");
   detectionInfoId.focusScore = env->GetFieldID(dInfoClass, "focusScore", "F");
+  detectionInfoId.cardAbsent = env->GetFieldID(dInfoClass, "cardAbsent", "Z");
   detectionInfoId.prediction = env->GetFieldID(dInfoClass, "prediction", "[I");
   detectionInfoId.expiry_month = env->GetFieldID(dInfoClass, "expiry_month", "I");
   detectionInfoId.expiry_year = env->GetFieldID(dInfoClass, "expiry_year", "I");
@@ -138,7 +233,7 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *vm, void *reserved) {
 
   if (!(detectionInfoId.complete && detectionInfoId.topEdge && detectionInfoId.bottomEdge
         && detectionInfoId.leftEdge && detectionInfoId.rightEdge
-        && detectionInfoId.focusScore && detectionInfoId.prediction
+        && detectionInfoId.focusScore && detectionInfoId.cardAbsent && detectionInfoId.prediction
         && detectionInfoId.expiry_month && detectionInfoId.expiry_year
         && detectionInfoId.detectedCard
        )) {
@@ -149,6 +244,182 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *vm, void *reserved) {
   return JNI_VERSION_1_6;
 }
 
+static void pipeline_release_frame(PipelineFrame *frame) {
+  cvReleaseImage(&frame->cardY);
+  cvReleaseImage(&frame->cb);
+  cvReleaseImage(&frame->cr);
+}
+
+/* Must be called with scanner_mutex and queue_mutex held. */
+static void pipeline_clear_locked() {
+  while (pipeline.count > 0) {
+    pipeline_release_frame(&pipeline.queue[pipeline.head]);
+    pipeline.head = (pipeline.head + 1) % PIPELINE_QUEUE_SIZE;
+    pipeline.count--;
+  }
+  if (pipeline.has_result) {
+    pipeline_release_frame(&pipeline.result_frame);
+    pipeline.has_result = false;
+  }
+  pipeline.generation++;
+  pipeline.scanner_done = false;
+  pthread_cond_broadcast(&pipeline.not_full);
+}
+
+static void *pipeline_worker(void *unused) {
+  dmz_debug_log("scan pipeline worker started");
+
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  while (true) {
+    while (pipeline.running && pipeline.count == 0) {
+      pthread_cond_wait(&pipeline.not_empty, &pipeline.queue_mutex);
+    }
+    if (!pipeline.running) {
+      break;
+    }
+
+    PipelineFrame frame = pipeline.queue[pipeline.head];
+    pipeline.head = (pipeline.head + 1) % PIPELINE_QUEUE_SIZE;
+    pipeline.count--;
+    unsigned int generation = pipeline.generation;
+    pthread_cond_signal(&pipeline.not_full);
+    pthread_mutex_unlock(&pipeline.queue_mutex);
+
+    bool keepFrame = false;
+    pthread_mutex_lock(&pipeline.scanner_mutex);
+    // frames queued before a reset belong to the previous session, and frames queued behind a
+    // completed result would overwrite the digit positions its image is blurred with
+    if (generation == pipeline.generation && !pipeline.scanner_done) {
+      TraceSection trace("cardio:recognize");
+      FrameScanResult result;
+      result.focus_score = frame.focus_score;
+      result.flipped = frame.flipped;
+      scanner_add_frame_with_expiry(&scannerState, frame.cardY, frame.scan_expiry, &result);
+      if (result.usable) {
+        ScannerResult scanResult;
+        scanner_result(&scannerState, &scanResult);
+
+        if (scanResult.complete) {
+          pthread_mutex_lock(&pipeline.queue_mutex);
+          pipeline.result = scanResult;
+          pipeline.result_frame = frame;
+          pipeline.has_result = true;
+          pipeline.scanner_done = true;
+          pthread_mutex_unlock(&pipeline.queue_mutex);
+          keepFrame = true;
+        }
+      }
+      else if (result.upside_down) {
+        pthread_mutex_lock(&pipeline.queue_mutex);
+        flipped = !frame.flipped;
+        pthread_mutex_unlock(&pipeline.queue_mutex);
+      }
+    }
+    pthread_mutex_unlock(&pipeline.scanner_mutex);
+
+    if (!keepFrame) {
+      pipeline_release_frame(&frame);
+    }
+
+    pthread_mutex_lock(&pipeline.queue_mutex);
+  }
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+
+  dmz_debug_log("scan pipeline worker stopped");
+  return NULL;
+}
+
+static bool pipeline_enabled() {
+  // with a single core the stages would just take turns
+  return !detectOnly && android_getCpuCount() > 1;
+}
+
+static void pipeline_start() {
+  if (pipeline.running) {
+    return;
+  }
+  pipeline.running = true;
+  if (pthread_create(&pipeline.thread, NULL, pipeline_worker, NULL) != 0) {
+    dmz_error_log("couldn't start scan pipeline worker");
+    pipeline.running = false;
+  }
+}
+
+static void pipeline_stop() {
+  if (!pipeline.running) {
+    return;
+  }
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  pipeline.running = false;
+  pthread_cond_broadcast(&pipeline.not_empty);
+  pthread_cond_broadcast(&pipeline.not_full);
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+
+  pthread_join(pipeline.thread, NULL);
+
+  pthread_mutex_lock(&pipeline.scanner_mutex);
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  pipeline_clear_locked();
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+  pthread_mutex_unlock(&pipeline.scanner_mutex);
+}
+
+/* Drops everything in flight and resets the scanner state. */
+static void pipeline_reset_scanner() {
+  pthread_mutex_lock(&pipeline.scanner_mutex);
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  pipeline_clear_locked();
+  scanner_reset(&scannerState);
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+  pthread_mutex_unlock(&pipeline.scanner_mutex);
+}
+
+/* Hands a frame to stage 2, which takes ownership of its images. Blocks while the queue is full. */
+static void pipeline_enqueue(PipelineFrame *frame) {
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  while (pipeline.running && pipeline.count == PIPELINE_QUEUE_SIZE) {
+    pthread_cond_wait(&pipeline.not_full, &pipeline.queue_mutex);
+  }
+  if (pipeline.running) {
+    pipeline.queue[(pipeline.head + pipeline.count) % PIPELINE_QUEUE_SIZE] = *frame;
+    pipeline.count++;
+    pthread_cond_signal(&pipeline.not_empty);
+  }
+  else {
+    pipeline_release_frame(frame);
+  }
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+}
+
+/* Takes ownership of a completed result and the frame that completed it, if there is one. */
+static bool pipeline_take_result(ScannerResult *scanResult, PipelineFrame *frame) {
+  bool found = false;
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  if (pipeline.has_result) {
+    *scanResult = pipeline.result;
+    *frame = pipeline.result_frame;
+    pipeline.has_result = false;
+    found = true;
+  }
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+  return found;
+}
+
+/* Whether a completed result is waiting for pipeline_take_result. */
+static bool pipeline_has_result() {
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  bool found = pipeline.has_result;
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+  return found;
+}
+
+static bool pipeline_flipped() {
+  pthread_mutex_lock(&pipeline.queue_mutex);
+  bool result = flipped;
+  pthread_mutex_unlock(&pipeline.queue_mutex);
+  return result;
+}
+
 extern "C"
 JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetup__ZFI(JNIEnv *env,
         jobject thiz, jboolean shouldOnlyDetectCard, jfloat jMinFocusScore, jint jUnblurDigits) {
@@ -159,17 +430,24 @@ JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetup__ZFI(JNIEnv *env,
   detectOnly = shouldOnlyDetectCard;
   minFocusScore = jMinFocusScore;
   unblurDigits = jUnblurDigits;
+
+  pthread_mutex_lock(&pipeline.queue_mutex);
   flipped = false;
+  pthread_mutex_unlock(&pipeline.queue_mutex);
 
   if (dmz == NULL) {
     dmz = dmz_context_create();
     scanner_initialize(&scannerState);
   }
   else {
-    scanner_reset(&scannerState);
+    pipeline_reset_scanner();
   }
   dmz_refcount++;
 
+  if (pipeline_enabled()) {
+    pipeline_start();
+  }
+
   cvSetErrMode(CV_ErrModeParent);
 }
 
@@ -179,9 +457,77 @@ JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetup__ZF(JNIEnv *env,
     return Java_io_card_payment_CardScanner_nSetup__ZFI(env, thiz, shouldOnlyDetectCard, jMinFocusScore, unblurDigits);
 }
 
+/* Creates the dmz context ahead of the first nSetup(), which then only needs to reset it.
+ * Callers on the Java side serialize this with nSetup() and nCleanup(). */
+extern "C"
+JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nPrewarm(JNIEnv *env, jclass clazz) {
+  dmz_debug_log("Java_io_card_payment_CardScanner_nPrewarm");
+
+  if (dmz == NULL) {
+    dmz = dmz_context_create();
+    scanner_initialize(&scannerState);
+  }
+}
+
+extern "C"
+JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetLumaOnly(JNIEnv *env, jobject thiz,
+    jboolean jLumaOnly) {
+  lumaOnly = jLumaOnly;
+}
+
+extern "C"
+JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetTraceEnabled(JNIEnv *env, jclass clazz,
+    jboolean jEnabled) {
+  if (jEnabled && atraceBeginSection == NULL) {
+    void *libandroid = dlopen("libandroid.so", RTLD_NOW | RTLD_LOCAL);
+    if (libandroid != NULL) {
+      atraceEndSection = (atrace_end_section_fn) dlsym(libandroid, "ATrace_endSection");
+      atraceBeginSection = (atrace_begin_section_fn) dlsym(libandroid, "ATrace_beginSection");
+    }
+    if (atraceBeginSection == NULL || atraceEndSection == NULL) {
+      dmz_debug_log("ATrace unavailable, native trace sections disabled");
+      atraceBeginSection = NULL;
+    }
+  }
+  traceEnabled = jEnabled && atraceBeginSection != NULL;
+}
+
+static IplImage *neutral_chroma(int width, int height) {
+  if (neutralChroma != NULL && (neutralChroma->width != width || neutralChroma->height != height)) {
+    cvReleaseImage(&neutralChroma);
+  }
+  if (neutralChroma == NULL) {
+    neutralChroma = cvCreateImage(cvSize(width, height), IPL_DEPTH_8U, 1);
+    cvSet(neutralChroma, cvScalar(128));
+  }
+  return neutralChroma;
+}
+
 extern "C"
 JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nResetAnalytics(JNIEnv *env, jobject thiz) {
-  scanner_reset(&scannerState);
+  pipeline_reset_scanner();
+  presenceConsecutiveRejections = 0;
+  presenceRejected = 0;
+  presenceRechecked = 0;
+  presenceRecheckedWithEdges = 0;
+}
+
+extern "C"
+JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nSetPresenceAudit(JNIEnv *env,
+    jobject thiz, jboolean jAudit) {
+  presenceAudit = jAudit;
+}
+
+extern "C"
+JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nGetPresenceStats(JNIEnv *env,
+    jobject thiz, jintArray jStats) {
+  jint stats[3] = { presenceRejected, presenceRechecked, presenceRecheckedWithEdges };
+  env->SetIntArrayRegion(jStats, 0, 3, stats);
+}
+
+extern "C"
+JNIEXPORT jboolean JNICALL Java_io_card_payment_CardScanner_nHasPendingResult(JNIEnv *env, jobject thiz) {
+  return pipeline.running && !detectOnly && pipeline_has_result();
 }
 
 extern "C"
@@ -189,6 +535,8 @@ JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nCleanup(JNIEnv *env, jo
   dmz_debug_log("Java_io_card_payment_CardScanner_nCleanup");
 
   if (dmz_refcount == 1) {
+    pipeline_stop();
+    cvReleaseImage(&neutralChroma);
     scanner_destroy(&scannerState);
     dmz_context_destroy(dmz);
     dmz = NULL;
@@ -219,6 +567,99 @@ void updateEdgeDetectDisplay(JNIEnv* env, jobject thiz, jobject dinfo, dmz_edges
   env->CallVoidMethod(thiz, cardScannerId.edgeUpdateCallback, dinfo);
 }
 
+void clearEdgeDetectDisplay(JNIEnv* env, jobject thiz, jobject dinfo) {
+  env->SetBooleanField(dinfo, detectionInfoId.topEdge, false);
+  env->SetBooleanField(dinfo, detectionInfoId.bottomEdge, false);
+  env->SetBooleanField(dinfo, detectionInfoId.leftEdge, false);
+  env->SetBooleanField(dinfo, detectionInfoId.rightEdge, false);
+
+  env->CallVoidMethod(thiz, cardScannerId.edgeUpdateCallback, dinfo);
+}
+
+/* Fast card presence test, run before chroma deinterleave and edge detection.
+ *
+ * A card edge shows up as a strong luma step running along one of the guide frame's sides. For each
+ * side, this samples a band around it on a coarse grid and checks, per sampled line across the
+ * band, whether any step exceeds PRESENCE_GRADIENT_THRESHOLD. A side is a candidate if enough of
+ * those lines have one. With fewer than PRESENCE_MIN_EDGES candidate sides, edge detection can't
+ * find a card either, so the frame is rejected. Textured backgrounds pass the test; it is meant to
+ * cheaply drop the flat and empty frames that dominate the start of a session.
+ */
+#define PRESENCE_SAMPLE_STEP 4
+#define PRESENCE_GRADIENT_THRESHOLD 24
+#define PRESENCE_MIN_HIT_PERCENT 50
+#define PRESENCE_MIN_EDGES 2
+
+/* The thresholds above are tuned on typical cards; a card with little luma contrast against the
+ * background can still fail the test. So that the test can never starve edge detection, every
+ * PRESENCE_RECHECK_INTERVAL-th consecutive rejected frame goes through full edge detection anyway.
+ * In audit mode every rejected frame does, which measures how often the test rejects frames that
+ * edge detection finds edges in, see CardScanner.setPresenceAudit(). */
+#define PRESENCE_RECHECK_INTERVAL 8
+
+static bool presence_band_has_edge(const uint8_t *y, int stride, int width, int height,
+                                   int along_start, int along_end, int across_start, int across_end,
+                                   bool horizontal) {
+  const int d = PRESENCE_SAMPLE_STEP / 2;
+  if (across_start < d) {
+    across_start = d;
+  }
+  int across_limit = (horizontal ? height : width) - d;
+  if (across_end > across_limit) {
+    across_end = across_limit;
+  }
+  int along_limit = horizontal ? width : height;
+  if (along_start < 0) {
+    along_start = 0;
+  }
+  if (along_end > along_limit) {
+    along_end = along_limit;
+  }
+
+  int lines = 0;
+  int hits = 0;
+  for (int a = along_start; a < along_end; a += PRESENCE_SAMPLE_STEP) {
+    lines++;
+    for (int c = across_start; c < across_end; c += PRESENCE_SAMPLE_STEP) {
+      int before, after;
+      if (horizontal) {
+        before = y[(c - d) * stride + a];
+        after = y[(c + d) * stride + a];
+      }
+      else {
+        before = y[a * stride + c - d];
+        after = y[a * stride + c + d];
+      }
+      if (abs(after - before) > PRESENCE_GRADIENT_THRESHOLD) {
+        hits++;
+        break;
+      }
+    }
+  }
+  return lines > 0 && hits * 100 >= lines * PRESENCE_MIN_HIT_PERCENT;
+}
+
+static bool card_possibly_present(IplImage *image, int orientation) {
+  TraceSection trace("cardio:presenceTest");
+  int width = image->width;
+  int height = image->height;
+  dmz_rect guide = dmz_guide_frame(orientation, width, height);
+  int band = MIN(guide.w, guide.h) / 8;
+  const uint8_t *y = (const uint8_t *)image->imageData;
+  int stride = image->widthStep;
+
+  int edges = 0;
+  edges += presence_band_has_edge(y, stride, width, height, guide.x, guide.x + guide.w,
+                                  guide.y - band, guide.y + band, true);
+  edges += presence_band_has_edge(y, stride, width, height, guide.x, guide.x + guide.w,
+                                  guide.y + guide.h - band, guide.y + guide.h + band, true);
+  edges += presence_band_has_edge(y, stride, width, height, guide.y, guide.y + guide.h,
+                                  guide.x - band, guide.x + band, false);
+  edges += presence_band_has_edge(y, stride, width, height, guide.y, guide.y + guide.h,
+                                  guide.x + guide.w - band, guide.x + guide.w + band, false);
+  return edges >= PRESENCE_MIN_EDGES;
+}
+
 void setScanCardNumberResult(JNIEnv* env, jobject dinfo, ScannerResult* scanResult) {
 
   jint numbers[16];
@@ -266,6 +707,7 @@ void logDinfo(JNIEnv* env, jobject dinfo) {
 void setDetectedCardImage(JNIEnv* env, jobject jCardResultBitmap,
         IplImage* cardY, IplImage* cb, IplImage* cr,
         dmz_corner_points corner_points, int orientation) {
+  TraceSection trace("cardio:cardImage");
 
   char* pixels = NULL;
 
@@ -280,29 +722,40 @@ void setDetectedCardImage(JNIEnv* env, jobject jCardResultBitmap,
     dmz_error_log("the dmz was given a bitmap that is not RGBA_8888");
     validCardInfo = false;
   }
+  if (!validCardInfo) {
+    return;
+  }
 
   bmRes = AndroidBitmap_lockPixels(env, jCardResultBitmap, (void**) &pixels );
   if (bmRes != ANDROID_BITMAP_RESUT_SUCCESS) {
     dmz_error_log("couldn't lock bitmap:%i", bmRes);
   }
   else {
-    IplImage* bigCb = NULL;
-    dmz_transform_card(NULL, cb, corner_points, orientation, true, &bigCb);
-
-    IplImage* bigCr = NULL;
-    dmz_transform_card(NULL, cr, corner_points, orientation, true, &bigCr);
-
     IplImage* cardResult = cvCreateImageHeader(cvSize(bmInfo.width, bmInfo.height), IPL_DEPTH_8U, 4);
     cvSetData(cardResult, pixels, bmInfo.stride);
-    dmz_YCbCr_to_RGB(cardY, bigCb, bigCr, &cardResult);
+
+    if (cb == NULL || cr == NULL) {
+      // luma-only mode
+      cvCvtColor(cardY, cardResult, CV_GRAY2RGBA);
+    }
+    else {
+      IplImage* bigCb = NULL;
+      dmz_transform_card(NULL, cb, corner_points, orientation, true, &bigCb);
+
+      IplImage* bigCr = NULL;
+      dmz_transform_card(NULL, cr, corner_points, orientation, true, &bigCr);
+
+      dmz_YCbCr_to_RGB(cardY, bigCb, bigCr, &cardResult);
+
+      cvReleaseImage(&bigCb);
+      cvReleaseImage(&bigCr);
+    }
 
     dmz_blur_card(cardResult, &scannerState, unblurDigits);
 
     AndroidBitmap_unlockPixels(env, jCardResultBitmap);
 
     cvReleaseImageHeader(&cardResult);
-    cvReleaseImage(&bigCb);
-    cvReleaseImage(&bigCr);
   }
 }
 
@@ -312,69 +765,170 @@ JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nScanFrame(JNIEnv *env,
     jbyteArray jb, jint width, jint height, jint orientation, jobject dinfo,
     jobject jCardResultBitmap, jboolean jScanExpiry) {
   dmz_trace_log("Java_io_card_payment_CardScanner_nScanFrame ... width:%i height:%i orientation:%i", width, height, orientation);
+  TraceSection traceFrame("cardio:nScanFrame");
 
   if (orientation == 0) {
     dmz_error_log("orientation is 0. Nothing good can come from this.");
     return;
   }
 
-  if (flipped) {
+  bool usePipeline = pipeline.running && !detectOnly;
+  bool frameFlipped = usePipeline ? pipeline_flipped() : flipped;
+  if (frameFlipped) {
     orientation = dmz_opposite_orientation(orientation);
   }
 
+  if (usePipeline) {
+    // report a result completed by stage 2 since the last frame, and stop there
+    ScannerResult scanResult;
+    PipelineFrame completed;
+    if (pipeline_take_result(&scanResult, &completed)) {
+      env->SetFloatField(dinfo, detectionInfoId.focusScore, completed.focus_score);
+      setScanCardNumberResult(env, dinfo, &scanResult);
+      logDinfo(env, dinfo);
+
+      pthread_mutex_lock(&pipeline.scanner_mutex);
+      setDetectedCardImage(env, jCardResultBitmap, completed.cardY, completed.cb, completed.cr,
+                           completed.corner_points, completed.orientation);
+      pthread_mutex_unlock(&pipeline.scanner_mutex);
+      pipeline_release_frame(&completed);
+      return;
+    }
+  }
+
   FrameScanResult result;
 
   IplImage *image = cvCreateImageHeader(cvSize(width, height), IPL_DEPTH_8U, 1);
   jbyte *jBytes = env->GetByteArrayElements(jb, 0);
   image->imageData = (char *)jBytes;
 
-  float focusScore = dmz_focus_score(image, false);
+  float focusScore;
+  {
+    TraceSection trace("cardio:focusScore");
+    focusScore = dmz_focus_score(image, false);
+  }
   env->SetFloatField(dinfo, detectionInfoId.focusScore, focusScore);
   dmz_trace_log("focus score: %f", focusScore);
+  bool rejectedByPresence = false;
+  bool presenceRecheck = false;
   if (focusScore >= minFocusScore) {
+    rejectedByPresence = !card_possibly_present(image, orientation);
+    if (rejectedByPresence) {
+      presenceRejected++;
+      presenceConsecutiveRejections++;
+      presenceRecheck = presenceAudit
+          || presenceConsecutiveRejections % PRESENCE_RECHECK_INTERVAL == 0;
+    }
+    else {
+      presenceConsecutiveRejections = 0;
+    }
+  }
+
+  if (rejectedByPresence && !presenceRecheck) {
+    dmz_trace_log("no card-like edges near the guide, skipping edge detection");
+    env->SetBooleanField(dinfo, detectionInfoId.cardAbsent, true);
+    clearEdgeDetectDisplay(env, thiz, dinfo);
+  }
+  else if (focusScore >= minFocusScore) {
 
-    IplImage *cbcr = cvCreateImageHeader(cvSize(width / 2, height / 2), IPL_DEPTH_8U, 2);
-    cbcr->imageData = ((char *)jBytes) + width * height;
     IplImage *cb, *cr;
+    if (lumaOnly) {
+      cb = neutral_chroma(width / 2, height / 2);
+      cr = cb;
+    }
+    else {
+      IplImage *cbcr = cvCreateImageHeader(cvSize(width / 2, height / 2), IPL_DEPTH_8U, 2);
+      cbcr->imageData = ((char *)jBytes) + width * height;
 
-    // Note: cr and cb are reversed here because Android uses android.graphics.ImageFormat.NV21. This is actually YCrCb rather than YCbCr!
-    dmz_deinterleave_uint8_c2(cbcr, &cr, &cb);
+      // Note: cr and cb are reversed here because Android uses android.graphics.ImageFormat.NV21. This is actually YCrCb rather than YCbCr!
+      dmz_deinterleave_uint8_c2(cbcr, &cr, &cb);
 
-    cvReleaseImageHeader(&cbcr);
+      cvReleaseImageHeader(&cbcr);
+    }
 
     dmz_edges found_edges;
     dmz_corner_points corner_points;
-    bool cardDetected = dmz_detect_edges(image, cb, cr,
-                                         orientation,
-                                         &found_edges, &corner_points
-                                        );
+    bool cardDetected;
+    {
+      TraceSection trace("cardio:detectEdges");
+      cardDetected = dmz_detect_edges(image, cb, cr,
+                                      orientation,
+                                      &found_edges, &corner_points
+                                     );
+    }
 
     updateEdgeDetectDisplay(env, thiz, dinfo, found_edges);
 
+    if (rejectedByPresence) {
+      presenceRechecked++;
+      if (found_edges.top.found || found_edges.bottom.found || found_edges.left.found
+          || found_edges.right.found) {
+        presenceRecheckedWithEdges++;
+        dmz_debug_log("presence test rejected a frame with edges");
+      }
+    }
+
+    if (lumaOnly) {
+      // neutralChroma is reused across frames, nothing past edge detection may hold on to it
+      cb = NULL;
+      cr = NULL;
+    }
+
     if (cardDetected) {
       IplImage *cardY = NULL;
-      dmz_transform_card(NULL, image, corner_points, orientation, false, &cardY);
-
-      if (!detectOnly) {
-        result.focus_score = focusScore;
-        result.flipped = flipped;
-        scanner_add_frame_with_expiry(&scannerState, cardY, jScanExpiry, &result);
-        if (result.usable) {
-          ScannerResult scanResult;
-          scanner_result(&scannerState, &scanResult);
-
-          if (scanResult.complete) {
-            setScanCardNumberResult(env, dinfo, &scanResult);
-            logDinfo(env, dinfo);
+      {
+        TraceSection trace("cardio:transformCard");
+        dmz_transform_card(NULL, image, corner_points, orientation, false, &cardY);
+      }
+
+      if (usePipeline) {
+        // stage 2 owns the images from here on. The card image is only rendered for the frame
+        // that completes the scan.
+        PipelineFrame frame;
+        frame.cardY = cardY;
+        frame.cb = cb;
+        frame.cr = cr;
+        frame.corner_points = corner_points;
+        frame.orientation = orientation;
+        frame.focus_score = focusScore;
+        frame.flipped = frameFlipped;
+        frame.scan_expiry = jScanExpiry;
+        {
+          // blocks while stage 2 is behind
+          TraceSection trace("cardio:enqueue");
+          pipeline_enqueue(&frame);
+        }
+        cb = NULL;
+        cr = NULL;
+      }
+      else {
+        // the card image is only looked at when this frame gets reported to the Java side
+        bool reportFrame = detectOnly;
+        if (!detectOnly) {
+          TraceSection trace("cardio:recognize");
+          result.focus_score = focusScore;
+          result.flipped = flipped;
+          scanner_add_frame_with_expiry(&scannerState, cardY, jScanExpiry, &result);
+          if (result.usable) {
+            ScannerResult scanResult;
+            scanner_result(&scannerState, &scanResult);
+
+            if (scanResult.complete) {
+              setScanCardNumberResult(env, dinfo, &scanResult);
+              logDinfo(env, dinfo);
+              reportFrame = true;
+            }
+          }
+          else if (result.upside_down) {
+            flipped = !flipped;
           }
         }
-        else if (result.upside_down) {
-          flipped = !flipped;
+
+        if (reportFrame) {
+          setDetectedCardImage(env, jCardResultBitmap, cardY, cb, cr, corner_points, orientation);
         }
+        cvReleaseImage(&cardY);
       }
-
-      setDetectedCardImage(env, jCardResultBitmap, cardY, cb, cr, corner_points, orientation);
-      cvReleaseImage(&cardY);
     }
 
     cvReleaseImage(&cb);
@@ -382,12 +936,16 @@ JNIEXPORT void JNICALL Java_io_card_payment_CardScanner_nScanFrame(JNIEnv *env,
   }
 
   cvReleaseImageHeader(&image);
-  env->ReleaseByteArrayElements(jb, jBytes, 0);
+  // the frame is only read, so don't copy it back if the VM handed us a copy
+  env->ReleaseByteArrayElements(jb, jBytes, JNI_ABORT);
 }
 
 extern "C"
 JNIEXPORT jint JNICALL Java_io_card_payment_CardScanner_nGetNumFramesScanned(JNIEnv *env, jobject thiz) {
-  return scannerState.session_analytics.num_frames_scanned;
+  pthread_mutex_lock(&pipeline.scanner_mutex);
+  int numFramesScanned = scannerState.session_analytics.num_frames_scanned;
+  pthread_mutex_unlock(&pipeline.scanner_mutex);
+  return numFramesScanned;
 }
 
 
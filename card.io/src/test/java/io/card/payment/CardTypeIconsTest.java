@@ -0,0 +1,80 @@
+package io.card.payment;
+
+/* CardTypeIconsTest.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class CardTypeIconsTest {
+
+    private final Context context = RuntimeEnvironment.application;
+
+    @After
+    public void tearDown() {
+        CardTypeIcons.clear();
+    }
+
+    @Test
+    public void getIcon_cachesPerTypeAndHeight() {
+        Bitmap visa = CardTypeIcons.getIcon(context, CardType.VISA, 40);
+        assertNotNull(visa);
+        assertSame(visa, CardTypeIcons.getIcon(context, CardType.VISA, 40));
+        assertNotSame(visa, CardTypeIcons.getIcon(context, CardType.VISA, 20));
+        assertNotSame(visa, CardTypeIcons.getIcon(context, CardType.MASTERCARD, 40));
+    }
+
+    @Test
+    public void getIcon_returnsNullWithoutIcon() {
+        assertNull(CardTypeIcons.getIcon(context, CardType.UNKNOWN));
+        assertNull(CardTypeIcons.getIcon(context, CardType.MAESTRO, 40));
+    }
+
+    @Test
+    public void getIcon_scalesToHeightKeepingAspectRatio() {
+        Bitmap natural = CardTypeIcons.getIcon(context, CardType.AMEX);
+        int height = natural.getHeight() / 2;
+        Bitmap scaled = CardTypeIcons.getIcon(context, CardType.AMEX, height);
+
+        assertEquals(height, scaled.getHeight());
+        assertEquals(natural.getWidth() * height / natural.getHeight(), scaled.getWidth());
+    }
+
+    @Test
+    public void getIcon_naturalSizeForZeroHeight() {
+        Bitmap natural = CardTypeIcons.getIcon(context, CardType.JCB);
+        assertSame(natural, CardTypeIcons.getIcon(context, CardType.JCB, 0));
+        assertTrue(natural.getWidth() > 0 && natural.getHeight() > 0);
+    }
+
+    @Test
+    public void getIcon_keepsTinyIconsAtLeastOnePixelWide() {
+        Bitmap tiny = CardTypeIcons.getIcon(context, CardType.DISCOVER, 1);
+        assertEquals(1, tiny.getHeight());
+        assertTrue(tiny.getWidth() >= 1);
+    }
+
+    @Test
+    public void clear_dropsCachedIcons() {
+        Bitmap visa = CardTypeIcons.getIcon(context, CardType.VISA, 40);
+        CardTypeIcons.clear();
+        assertNotSame(visa, CardTypeIcons.getIcon(context, CardType.VISA, 40));
+    }
+}
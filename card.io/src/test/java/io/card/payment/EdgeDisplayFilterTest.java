@@ -0,0 +1,65 @@
+package io.card.payment;
+
+/* EdgeDisplayFilterTest.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class EdgeDisplayFilterTest {
+
+    private static DetectionInfo edges(boolean top, boolean left) {
+        DetectionInfo dInfo = new DetectionInfo();
+        dInfo.topEdge = top;
+        dInfo.leftEdge = left;
+        return dInfo;
+    }
+
+    @Test
+    public void lostEdgeIsHeldForExactlyHoldFrames() {
+        EdgeDisplayFilter filter = new EdgeDisplayFilter();
+        assertTrue(filter.filter(edges(true, false)).topEdge);
+
+        for (int i = 0; i < EdgeDisplayFilter.HOLD_FRAMES; i++) {
+            assertTrue("held frame " + i, filter.filter(edges(false, false)).topEdge);
+        }
+        assertFalse(filter.filter(edges(false, false)).topEdge);
+    }
+
+    @Test
+    public void foundEdgeRestartsHold() {
+        EdgeDisplayFilter filter = new EdgeDisplayFilter();
+        filter.filter(edges(true, false));
+        filter.filter(edges(false, false));
+        filter.filter(edges(true, false));
+
+        for (int i = 0; i < EdgeDisplayFilter.HOLD_FRAMES; i++) {
+            assertTrue("held frame " + i, filter.filter(edges(false, false)).topEdge);
+        }
+        assertFalse(filter.filter(edges(false, false)).topEdge);
+    }
+
+    @Test
+    public void edgesAreHeldIndependently() {
+        EdgeDisplayFilter filter = new EdgeDisplayFilter();
+        filter.filter(edges(true, false));
+        DetectionInfo displayed = filter.filter(edges(false, true));
+        assertTrue(displayed.topEdge);
+        assertTrue(displayed.leftEdge);
+        assertFalse(displayed.bottomEdge);
+        assertFalse(displayed.rightEdge);
+    }
+
+    @Test
+    public void resetDropsHeldEdges() {
+        EdgeDisplayFilter filter = new EdgeDisplayFilter();
+        filter.filter(edges(true, true));
+        filter.reset();
+        DetectionInfo displayed = filter.filter(edges(false, false));
+        assertFalse(displayed.topEdge);
+        assertFalse(displayed.leftEdge);
+    }
+}
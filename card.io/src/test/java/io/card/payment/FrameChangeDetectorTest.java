@@ -0,0 +1,92 @@
+package io.card.payment;
+
+/* FrameChangeDetectorTest.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.graphics.Rect;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FrameChangeDetectorTest {
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+    private static final Rect GUIDE = new Rect(8, 8, 56, 40);
+
+    private static byte[] frame(int luma) {
+        byte[] nv21 = new byte[WIDTH * HEIGHT * 3 / 2];
+        Arrays.fill(nv21, (byte) luma);
+        return nv21;
+    }
+
+    private static DetectionInfo scanned(boolean cardAbsent, boolean allEdges) {
+        DetectionInfo dInfo = new DetectionInfo();
+        dInfo.cardAbsent = cardAbsent;
+        dInfo.topEdge = allEdges;
+        dInfo.bottomEdge = allEdges;
+        dInfo.leftEdge = allEdges;
+        dInfo.rightEdge = allEdges;
+        return dInfo;
+    }
+
+    @Test
+    public void skipsWhileNoCardIsFound() {
+        assertTrue(FrameChangeDetector.canSkipAfter(scanned(true, false), false));
+        assertTrue(FrameChangeDetector.canSkipAfter(scanned(false, false), true));
+    }
+
+    @Test
+    public void neverSkipsOnceTheCardIsDetected() {
+        assertFalse(FrameChangeDetector.canSkipAfter(scanned(false, true), true));
+
+        DetectionInfo predicted = scanned(false, true);
+        predicted.complete = true;
+        assertFalse(FrameChangeDetector.canSkipAfter(predicted, true));
+    }
+
+    @Test
+    public void neverSkipsAfterABlurryFrame() {
+        assertFalse(FrameChangeDetector.canSkipAfter(scanned(false, false), false));
+    }
+
+    @Test
+    public void skipsUnchangedFramesOnlyWhenAllowed() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        assertFalse(detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true));
+        assertFalse(detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, false));
+        assertTrue(detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true));
+    }
+
+    @Test
+    public void scansChangedFrames() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true);
+        assertFalse(detector.shouldSkip(frame(120), WIDTH, HEIGHT, GUIDE, true));
+    }
+
+    @Test
+    public void skipsAtMostMaxConsecutiveSkips() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true);
+        for (int i = 0; i < FrameChangeDetector.MAX_CONSECUTIVE_SKIPS; i++) {
+            assertTrue("skip " + i, detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true));
+        }
+        assertFalse(detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true));
+    }
+
+    @Test
+    public void resetScansTheNextFrame() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true);
+        detector.reset();
+        assertFalse(detector.shouldSkip(frame(100), WIDTH, HEIGHT, GUIDE, true));
+    }
+}
@@ -0,0 +1,137 @@
+package io.card.payment;
+
+/* ScanSessionMetricsTest.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import android.os.Parcel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+import io.card.payment.ScanSessionMetrics.FrameOutcome;
+import io.card.payment.ScanSessionMetrics.Stage;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScanSessionMetricsTest {
+
+    private static ScanSessionMetrics metrics(int[][] latencyHistograms, long[] maxLatencyMicros) {
+        int[] frameCounts = new int[FrameOutcome.values().length];
+        frameCounts[FrameOutcome.IN_FOCUS.ordinal()] = 12;
+        frameCounts[FrameOutcome.SKIPPED_FOCUSING.ordinal()] = 3;
+        int[] focusScores = new int[ScanSessionMetrics.FOCUS_SCORE_BUCKETS];
+        focusScores[4] = 7;
+        return new ScanSessionMetrics(150, 900, 2400, 3000, frameCounts, 11, focusScores, 1, 2, 3,
+                latencyHistograms, maxLatencyMicros);
+    }
+
+    private static int[][] emptyHistograms() {
+        return new int[Stage.values().length][ScanSessionMetrics.LATENCY_BUCKETS];
+    }
+
+    @Test
+    public void latencyBucket_hasInclusiveUpperBounds() {
+        assertEquals(0, ScanSessionMetrics.latencyBucket(0));
+        assertEquals(0, ScanSessionMetrics.latencyBucket(250));
+        assertEquals(1, ScanSessionMetrics.latencyBucket(251));
+        assertEquals(4, ScanSessionMetrics.latencyBucket(500));
+        assertEquals(5, ScanSessionMetrics.latencyBucket(501));
+        assertEquals(8, ScanSessionMetrics.latencyBucket(1000));
+        assertEquals(16, ScanSessionMetrics.latencyBucket(4000));
+    }
+
+    @Test
+    public void latencyBucket_lastBucketIsOpenEnded() {
+        int last = ScanSessionMetrics.LATENCY_BUCKETS - 1;
+        assertEquals(last, ScanSessionMetrics.latencyBucket(10 * 1000 * 1000));
+        assertEquals(last, ScanSessionMetrics.latencyBucket(Long.MAX_VALUE));
+        assertTrue(ScanSessionMetrics.latencyBucket(500 * 1000) < last);
+    }
+
+    @Test
+    public void getLatencyPercentile_returnsBucketUpperBound() {
+        int[][] histograms = emptyHistograms();
+        long[] max = new long[Stage.values().length];
+        int[] recognition = histograms[Stage.RECOGNITION.ordinal()];
+        recognition[ScanSessionMetrics.latencyBucket(900)] = 9;
+        recognition[ScanSessionMetrics.latencyBucket(3800)] = 1;
+        max[Stage.RECOGNITION.ordinal()] = 3800;
+        ScanSessionMetrics metrics = metrics(histograms, max);
+
+        assertEquals(10, metrics.getLatencySampleCount(Stage.RECOGNITION));
+        assertEquals(1f, metrics.getLatencyPercentile(Stage.RECOGNITION, 50));
+        assertEquals(1f, metrics.getLatencyPercentile(Stage.RECOGNITION, 90));
+        // capped at the slowest sample rather than the bucket's 4ms bound
+        assertEquals(3.8f, metrics.getLatencyPercentile(Stage.RECOGNITION, 91));
+        assertEquals(3.8f, metrics.getLatencyPercentile(Stage.RECOGNITION, 100));
+        assertEquals(1f, metrics.getLatencyPercentile(Stage.RECOGNITION, 0));
+    }
+
+    @Test
+    public void getLatencyPercentile_usesMaxInOpenEndedBucket() {
+        int[][] histograms = emptyHistograms();
+        long[] max = new long[Stage.values().length];
+        histograms[Stage.RECOGNITION.ordinal()][ScanSessionMetrics.LATENCY_BUCKETS - 1] = 1;
+        max[Stage.RECOGNITION.ordinal()] = 2 * 1000 * 1000;
+
+        assertEquals(2000f, metrics(histograms, max).getLatencyPercentile(Stage.RECOGNITION, 50));
+    }
+
+    @Test
+    public void getLatencyPercentile_untimedStage() {
+        ScanSessionMetrics metrics = metrics(emptyHistograms(), new long[Stage.values().length]);
+        assertEquals(0, metrics.getLatencySampleCount(Stage.CHANGE_DETECTION));
+        assertEquals(-1f, metrics.getLatencyPercentile(Stage.CHANGE_DETECTION, 50));
+    }
+
+    @Test
+    public void parcel_roundTrips() {
+        int[][] histograms = emptyHistograms();
+        long[] max = new long[Stage.values().length];
+        histograms[Stage.RECOGNITION.ordinal()][ScanSessionMetrics.latencyBucket(900)] = 9;
+        histograms[Stage.CHANGE_DETECTION.ordinal()][ScanSessionMetrics.latencyBucket(300)] = 4;
+        max[Stage.RECOGNITION.ordinal()] = 950;
+        max[Stage.CHANGE_DETECTION.ordinal()] = 310;
+        ScanSessionMetrics metrics = metrics(histograms, max);
+
+        Parcel parcel = Parcel.obtain();
+        ScanSessionMetrics copy;
+        try {
+            metrics.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            copy = ScanSessionMetrics.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+
+        assertEquals(metrics.getTimeToFirstFrame(), copy.getTimeToFirstFrame());
+        assertEquals(metrics.getTimeToEdgesDetected(), copy.getTimeToEdgesDetected());
+        assertEquals(metrics.getTimeToResult(), copy.getTimeToResult());
+        assertEquals(metrics.getDuration(), copy.getDuration());
+        for (FrameOutcome outcome : FrameOutcome.values()) {
+            assertEquals(outcome.name(), metrics.getFrameCount(outcome),
+                    copy.getFrameCount(outcome));
+        }
+        assertEquals(metrics.getFramesRecognized(), copy.getFramesRecognized());
+        assertTrue(Arrays.equals(metrics.getFocusScoreHistogram(),
+                copy.getFocusScoreHistogram()));
+        assertEquals(metrics.getManualAutoFocusCount(), copy.getManualAutoFocusCount());
+        assertEquals(metrics.getAutoFocusCount(), copy.getAutoFocusCount());
+        assertEquals(metrics.getTorchChangeCount(), copy.getTorchChangeCount());
+        for (Stage stage : Stage.values()) {
+            assertEquals(stage.name(), metrics.getLatencySampleCount(stage),
+                    copy.getLatencySampleCount(stage));
+            for (int percentile : new int[]{50, 90, 100}) {
+                assertEquals(stage.name(), metrics.getLatencyPercentile(stage, percentile),
+                        copy.getLatencyPercentile(stage, percentile));
+            }
+        }
+        assertEquals(metrics.toString(), copy.toString());
+    }
+}
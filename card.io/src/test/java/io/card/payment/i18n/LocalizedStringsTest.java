@@ -0,0 +1,73 @@
+package io.card.payment.i18n;
+
+import android.content.Intent;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.card.payment.CardIOActivity;
+import io.card.payment.i18n.locales.LocalizedStringsList;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class LocalizedStringsTest {
+
+    @After
+    public void tearDown() {
+        LocalizedStrings.setLanguage(new Intent());
+    }
+
+    @Test
+    public void allLocales_haveAllKeys() {
+        // Maestro was added after the other translations, it falls back to "en"
+        List<String> missing = new ArrayList<>();
+        for (String message : LocalizedStrings.getMissingLocaleMessages()) {
+            if (!message.endsWith("," + StringKey.CARDTYPE_MAESTRO + "]")
+                    || message.startsWith("Missing [en,")) {
+                missing.add(message);
+            }
+        }
+        assertEquals(new ArrayList<String>(), missing);
+    }
+
+    @Test
+    public void getString_usesRequestedLocale() {
+        assertEquals("Annuler", LocalizedStrings.getString(StringKey.CANCEL, "fr"));
+        assertEquals("Postcode", LocalizedStrings.getString(StringKey.ENTRY_POSTAL_CODE, "en_GB"));
+    }
+
+    @Test
+    public void getString_fallsBackToEnglish() {
+        assertEquals("Maestro", LocalizedStrings.getString(StringKey.CARDTYPE_MAESTRO, "fr"));
+    }
+
+    @Test
+    public void getString_followsSetLanguage() {
+        LocalizedStrings.setLanguage(
+                new Intent().putExtra(CardIOActivity.EXTRA_LANGUAGE_OR_LOCALE, "fr"));
+        assertEquals("Annuler", LocalizedStrings.getString(StringKey.CANCEL));
+
+        LocalizedStrings.setLanguage(
+                new Intent().putExtra(CardIOActivity.EXTRA_LANGUAGE_OR_LOCALE, "de"));
+        assertEquals("Abbrechen", LocalizedStrings.getString(StringKey.CANCEL));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void allLocales_matchesLocaleNames() {
+        assertEquals(LocalizedStringsList.ALL_LOCALE_NAMES.size(),
+                LocalizedStringsList.ALL_LOCALES.size());
+        for (int i = 0; i < LocalizedStringsList.ALL_LOCALES.size(); i++) {
+            SupportedLocale<StringKey> locale = LocalizedStringsList.ALL_LOCALES.get(i);
+            assertEquals(LocalizedStringsList.ALL_LOCALE_NAMES.get(i), locale.getName());
+            assertSame(locale, LocalizedStringsList.ALL_LOCALES.get(i));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.card.payment.validation;
+
+/* CardBatch.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import java.util.Calendar;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates and classifies large batches of card records, for instance on a server checking
+ * stored cards with the same rules the SDK applies on the device.
+ * <br><br>
+ * Records are passed as parallel arrays and results are written into caller-provided arrays, so a
+ * batch doesn't allocate per record. The parallel variants split the batch over a
+ * {@link ForkJoinPool}; they need Java 7 or Android 5.0 (API 21).
+ */
+public final class CardBatch {
+
+    // records per fork/join task; small batches aren't worth the task overhead
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private static ForkJoinPool sCommonPool;
+
+    private CardBatch() {
+    }
+
+    /**
+     * Infers the brand of each number and checks whether it is a complete, valid card number.
+     *
+     * @param numbers card numbers, digits only. A null entry is classified as unknown and invalid.
+     * @param brands receives the brand of each number, may be null if not needed
+     * @param valid receives <code>true</code> for each number of a known brand, with the length of
+     *              that brand and a passing Luhn checksum
+     */
+    public static void classify(CharSequence[] numbers, CardBrand[] brands, boolean[] valid) {
+        checkLengths(numbers.length, brands, valid);
+        classifyRange(numbers, brands, valid, 0, numbers.length);
+    }
+
+    /**
+     * Same as {@link #classify(CharSequence[], CardBrand[], boolean[])}, spread over the common
+     * pool.
+     */
+    public static void classifyParallel(CharSequence[] numbers, CardBrand[] brands,
+                                        boolean[] valid) {
+        classifyParallel(numbers, brands, valid, commonPool());
+    }
+
+    /**
+     * Same as {@link #classify(CharSequence[], CardBrand[], boolean[])}, spread over the given
+     * pool.
+     */
+    public static void classifyParallel(CharSequence[] numbers, CardBrand[] brands,
+                                        boolean[] valid, ForkJoinPool pool) {
+        checkLengths(numbers.length, brands, valid);
+        pool.invoke(new ClassifyTask(numbers, brands, valid, 0, numbers.length));
+    }
+
+    /**
+     * Checks each expiry date against the current date, see
+     * {@link ExpiryDates#isValid(int, int)}.
+     *
+     * @param months {January=1, ..., December=12}
+     * @param years four digit years
+     * @param valid receives the result for each date
+     */
+    public static void validateExpiries(int[] months, int[] years, boolean[] valid) {
+        checkExpiryLengths(months, years, valid);
+        Calendar now = Calendar.getInstance();
+        validateExpiryRange(months, years, valid, 0, months.length, now.get(Calendar.YEAR),
+                now.get(Calendar.MONTH) + 1);
+    }
+
+    /**
+     * Same as {@link #validateExpiries(int[], int[], boolean[])}, spread over the common pool.
+     */
+    public static void validateExpiriesParallel(int[] months, int[] years, boolean[] valid) {
+        validateExpiriesParallel(months, years, valid, commonPool());
+    }
+
+    /**
+     * Same as {@link #validateExpiries(int[], int[], boolean[])}, spread over the given pool.
+     */
+    public static void validateExpiriesParallel(int[] months, int[] years, boolean[] valid,
+                                                ForkJoinPool pool) {
+        checkExpiryLengths(months, years, valid);
+        Calendar now = Calendar.getInstance();
+        pool.invoke(new ExpiryTask(months, years, valid, 0, months.length,
+                now.get(Calendar.YEAR), now.get(Calendar.MONTH) + 1));
+    }
+
+    private static void classifyRange(CharSequence[] numbers, CardBrand[] brands,
+                                      boolean[] valid, int from, int to) {
+        for (int i = from; i < to; i++) {
+            CharSequence number = numbers[i];
+            CardBrand brand = CardBrand.fromCardNumber(number);
+            if (brands != null) {
+                brands[i] = brand;
+            }
+            if (valid != null) {
+                valid[i] = number != null
+                        && brand != CardBrand.UNKNOWN && brand != CardBrand.INSUFFICIENT_DIGITS
+                        && number.length() == brand.numberLength()
+                        && CardNumbers.passesLuhnChecksum(number);
+            }
+        }
+    }
+
+    private static void validateExpiryRange(int[] months, int[] years, boolean[] valid,
+                                            int from, int to, int thisYear, int thisMonth) {
+        for (int i = from; i < to; i++) {
+            valid[i] = ExpiryDates.isValid(months[i], years[i], thisYear, thisMonth);
+        }
+    }
+
+    private static class ClassifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence[] mNumbers;
+        private final CardBrand[] mBrands;
+        private final boolean[] mValid;
+        private final int mFrom;
+        private final int mTo;
+
+        ClassifyTask(CharSequence[] numbers, CardBrand[] brands, boolean[] valid, int from,
+                     int to) {
+            mNumbers = numbers;
+            mBrands = brands;
+            mValid = valid;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom <= PARALLEL_THRESHOLD) {
+                classifyRange(mNumbers, mBrands, mValid, mFrom, mTo);
+                return;
+            }
+            int mid = (mFrom + mTo) >>> 1;
+            invokeAll(new ClassifyTask(mNumbers, mBrands, mValid, mFrom, mid),
+                    new ClassifyTask(mNumbers, mBrands, mValid, mid, mTo));
+        }
+    }
+
+    private static class ExpiryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] mMonths;
+        private final int[] mYears;
+        private final boolean[] mValid;
+        private final int mFrom;
+        private final int mTo;
+        private final int mThisYear;
+        private final int mThisMonth;
+
+        ExpiryTask(int[] months, int[] years, boolean[] valid, int from, int to, int thisYear,
+                   int thisMonth) {
+            mMonths = months;
+            mYears = years;
+            mValid = valid;
+            mFrom = from;
+            mTo = to;
+            mThisYear = thisYear;
+            mThisMonth = thisMonth;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom <= PARALLEL_THRESHOLD) {
+                validateExpiryRange(mMonths, mYears, mValid, mFrom, mTo, mThisYear, mThisMonth);
+                return;
+            }
+            int mid = (mFrom + mTo) >>> 1;
+            invokeAll(new ExpiryTask(mMonths, mYears, mValid, mFrom, mid, mThisYear, mThisMonth),
+                    new ExpiryTask(mMonths, mYears, mValid, mid, mTo, mThisYear, mThisMonth));
+        }
+    }
+
+    // ForkJoinPool.commonPool() only exists since Java 8
+    private static synchronized ForkJoinPool commonPool() {
+        if (sCommonPool == null) {
+            sCommonPool = new ForkJoinPool();
+        }
+        return sCommonPool;
+    }
+
+    private static void checkLengths(int count, CardBrand[] brands, boolean[] valid) {
+        if ((brands != null && brands.length < count) || (valid != null && valid.length < count)) {
+            throw new IllegalArgumentException("result arrays are shorter than the batch");
+        }
+    }
+
+    private static void checkExpiryLengths(int[] months, int[] years, boolean[] valid) {
+        if (years.length < months.length || valid.length < months.length) {
+            throw new IllegalArgumentException("arrays are shorter than the batch");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.card.payment.validation;
+
+/* CardBrand.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+/**
+ * Card brands recognized from the card number. see http://en.wikipedia.org/wiki/Bank_card_number
+ * for more details.
+ * <br><br>
+ * The constants match those of {@code io.card.payment.CardType}, which adds display names and
+ * logos on Android.
+ */
+public enum CardBrand {
+    /**
+     * American Express cards start in 34 or 37
+     */
+    AMEX,
+    /**
+     * Diners Club
+     */
+    DINERSCLUB,
+    /**
+     * Discover starts with 6x for some values of x.
+     */
+    DISCOVER,
+    /**
+     * JCB (see http://www.jcbusa.com/) cards start with 35
+     */
+    JCB,
+    /**
+     * Mastercard starts with 51-55
+     */
+    MASTERCARD,
+    /**
+     * Visa starts with 4
+     */
+    VISA,
+    /**
+     * Maestro
+     */
+    MAESTRO,
+    /**
+     * Unknown card type.
+     */
+    UNKNOWN,
+    /**
+     * Not enough information given.
+     * <br><br>
+     * More digits are required to know the card type. (e.g. all we have is a 3, so we don't know if
+     * it's JCB or AmEx)
+     */
+    INSUFFICIENT_DIGITS;
+
+    // Prefix intervals, see http://en.wikipedia.org/wiki/Bank_card_number (last checked: 19 Feb 2013).
+    // An interval end of null means the interval is a single prefix.
+    private static final String[][] PREFIX_INTERVALS = {
+            { "2221", "2720" },     // MasterCard 2-series
+            { "300", "305" },       // Diners Club (Discover)
+            { "309", null },        // Diners Club (Discover)
+            { "34", null },         // AmEx
+            { "3528", "3589" },     // JCB
+            { "36", null },         // Diners Club (Discover)
+            { "37", null },         // AmEx
+            { "38", "39" },         // Diners Club (Discover)
+            { "4", null },          // Visa
+            { "50", null },         // Maestro
+            { "51", "55" },         // MasterCard
+            { "56", "59" },         // Maestro
+            { "6011", null },       // Discover
+            { "61", null },         // Maestro
+            { "62", null },         // China UnionPay (Discover)
+            { "63", null },         // Maestro
+            { "644", "649" },       // Discover
+            { "65", null },         // Discover
+            { "66", "69" },         // Maestro
+            { "88", null },         // China UnionPay (Discover)
+    };
+
+    private static final CardBrand[] PREFIX_BRANDS = {
+            MASTERCARD, DINERSCLUB, DINERSCLUB, AMEX, JCB, DINERSCLUB, AMEX, DINERSCLUB, VISA,
+            MAESTRO, MASTERCARD, MAESTRO, DISCOVER, MAESTRO, DISCOVER, MAESTRO, DISCOVER, DISCOVER,
+            MAESTRO, DISCOVER,
+    };
+
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000 };
+
+    private static final int[] INTERVAL_STARTS = new int[PREFIX_INTERVALS.length];
+    private static final int[] INTERVAL_ENDS = new int[PREFIX_INTERVALS.length];
+    private static final int[] INTERVAL_LENGTHS = new int[PREFIX_INTERVALS.length];
+
+    private static int minDigits = 1;
+
+    static {
+        for (int i = 0; i < PREFIX_INTERVALS.length; i++) {
+            String start = PREFIX_INTERVALS[i][0];
+            String end = PREFIX_INTERVALS[i][1] != null ? PREFIX_INTERVALS[i][1] : start;
+            // both bounds of an interval have the same number of digits
+            INTERVAL_STARTS[i] = Integer.parseInt(start);
+            INTERVAL_ENDS[i] = Integer.parseInt(end);
+            INTERVAL_LENGTHS[i] = start.length();
+            minDigits = Math.max(minDigits, start.length());
+        }
+    }
+
+    /**
+     * @return 15 for AmEx, -1 for unknown, 16 for others.
+     */
+    public int numberLength() {
+        switch (this) {
+            case AMEX:
+                return 15;
+            case JCB:
+            case MASTERCARD:
+            case MAESTRO:
+            case VISA:
+            case DISCOVER:
+                return 16;
+            case DINERSCLUB:
+                return 14;
+            case INSUFFICIENT_DIGITS:
+                // this represents the maximum number of digits before we can know the card type
+                return minDigits;
+            case UNKNOWN:
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @return 4 for Amex, 3 for others, -1 for unknown
+     */
+    public int cvvLength() {
+        switch (this) {
+            case AMEX:
+                return 4;
+            case JCB:
+            case MASTERCARD:
+            case MAESTRO:
+            case VISA:
+            case DISCOVER:
+            case DINERSCLUB:
+                return 3;
+            case UNKNOWN:
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Infer the brand from the number. Doesn't allocate.
+     *
+     * @param number A string containing only the card number, or its first digits.
+     * @return the inferred brand, {@link #UNKNOWN} if the number is empty or doesn't start with
+     * digits.
+     */
+    public static CardBrand fromCardNumber(CharSequence number) {
+        if (number == null || number.length() == 0) {
+            return UNKNOWN;
+        }
+
+        int prefixLength = Math.min(number.length(), minDigits);
+        int prefix = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || '9' < c) {
+                return UNKNOWN;
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+
+        CardBrand found = null;
+        for (int i = 0; i < PREFIX_INTERVALS.length; i++) {
+            if (isPrefixInInterval(prefix, prefixLength, i)) {
+                if (found == null) {
+                    found = PREFIX_BRANDS[i];
+                } else if (found != PREFIX_BRANDS[i]) {
+                    return INSUFFICIENT_DIGITS;
+                }
+            }
+        }
+        return found != null ? found : UNKNOWN;
+    }
+
+    /**
+     * Compares the number's prefix with an interval, both cut to the shorter of the two.
+     */
+    private static boolean isPrefixInInterval(int prefix, int prefixLength, int interval) {
+        int intervalLength = INTERVAL_LENGTHS[interval];
+        int start = INTERVAL_STARTS[interval];
+        int end = INTERVAL_ENDS[interval];
+        if (prefixLength < intervalLength) {
+            int divisor = POWERS_OF_TEN[intervalLength - prefixLength];
+            start /= divisor;
+            end /= divisor;
+        } else if (prefixLength > intervalLength) {
+            prefix /= POWERS_OF_TEN[prefixLength - intervalLength];
+        }
+        return start <= prefix && prefix <= end;
+    }
+}
@@ -0,0 +1,110 @@
+package io.card.payment.validation;
+
+/* CardNumbers.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+/**
+ * Checksum and formatting rules for card numbers.
+ */
+public final class CardNumbers {
+
+    private static final int[][] LUHN_SUMS = {
+            { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 },
+            { 0, 2, 4, 6, 8, 1, 3, 5, 7, 9 },
+    };
+
+    private CardNumbers() {
+    }
+
+    /**
+     * Checks if the given string represents a number that passes the Luhn Checksum which all valid
+     * CCs will pass. Doesn't allocate.
+     *
+     * @param number the card number, digits only
+     * @return true if the number does pass the checksum, else false
+     */
+    public static boolean passesLuhnChecksum(CharSequence number) {
+        int even = 0;
+        int sum = 0;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            char c = number.charAt(i);
+            if (c < '0' || '9' < c) {
+                return false;
+            }
+            sum += LUHN_SUMS[even++ & 0x1][c - '0'];
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * @return the digits of the given string, in order.
+     */
+    public static String digitsOnly(CharSequence numString) {
+        StringBuilder sb = new StringBuilder(numString.length());
+        for (int i = 0; i < numString.length(); i++) {
+            char c = numString.charAt(i);
+            if (Character.isDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param numStr the String of numbers to view
+     * @return numStr itself if it is not formattable by the known formatting rules
+     */
+    public static String formatString(String numStr) {
+        return formatString(numStr, true, null);
+    }
+
+    /**
+     * @param numStr the String of numbers to view
+     * @param filterDigits whether to drop everything but digits from numStr first
+     * @param brand the brand whose grouping to use, or null to infer it from numStr
+     * @return numStr itself if it is not formattable by the known formatting rules
+     */
+    public static String formatString(String numStr, boolean filterDigits, CardBrand brand) {
+        String digits;
+        if (filterDigits) {
+            digits = digitsOnly(numStr);
+        } else {
+            digits = numStr;
+        }
+        if (brand == null) {
+            brand = CardBrand.fromCardNumber(digits);
+        }
+        int numLen = brand.numberLength();
+        if (digits.length() == numLen) {
+            if (numLen == 16) {
+                return formatSixteenString(digits);
+            } else if (numLen == 15) {
+                return formatFifteenString(digits);
+            }
+        }
+        return numStr; // at the worst case, pass back what was given
+    }
+
+    private static String formatFifteenString(String digits) {
+        StringBuilder sb = new StringBuilder(17);
+        for (int i = 0; i < 15; i++) {
+            if (i == 4 || i == 10) {
+                sb.append(' ');
+            }
+            sb.append(digits.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    private static String formatSixteenString(String digits) {
+        StringBuilder sb = new StringBuilder(19);
+        for (int i = 0; i < 16; i++) {
+            if (i != 0 && i % 4 == 0) {
+                sb.append(' ');// insert every 4th char, except at end
+            }
+            sb.append(digits.charAt(i));
+        }
+        return sb.toString();
+    }
+}
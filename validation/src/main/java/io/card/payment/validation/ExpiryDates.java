@@ -0,0 +1,101 @@
+package io.card.payment.validation;
+
+/* ExpiryDates.java
+ * See the file "LICENSE.md" for the full license governing this code.
+ */
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Validation and parsing of card expiry dates.
+ */
+public final class ExpiryDates {
+
+    /**
+     * Number of years into the future that a card expiration date is considered to be valid.
+     */
+    public static final int MAX_FUTURE_YEARS = 15;
+
+    private ExpiryDates() {
+    }
+
+    /**
+     * @param expiryMonth {January=1, ..., December=12}
+     * @param expiryYear four digit year
+     * @return <code>true</code> if the date is neither in the past nor more than
+     * {@link #MAX_FUTURE_YEARS} ahead.
+     */
+    public static boolean isValid(int expiryMonth, int expiryYear) {
+        Calendar now = Calendar.getInstance();
+        return isValid(expiryMonth, expiryYear, now.get(Calendar.YEAR),
+                now.get(Calendar.MONTH) + 1);
+    }
+
+    /**
+     * Same as {@link #isValid(int, int)}, against a given current date. Doesn't allocate, so that
+     * callers checking many dates can look up the current date once.
+     *
+     * @param thisYear four digit year
+     * @param thisMonth {January=1, ..., December=12}
+     */
+    public static boolean isValid(int expiryMonth, int expiryYear, int thisYear, int thisMonth) {
+        if (expiryMonth < 1 || 12 < expiryMonth) {
+            return false;
+        }
+        if (expiryYear < thisYear) {
+            return false;
+        }
+        if (expiryYear == thisYear && expiryMonth < thisMonth) {
+            return false;
+        }
+        if (expiryYear > thisYear + MAX_FUTURE_YEARS) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param dateString "MMyy" or "MMyyyy", separators are ignored
+     */
+    public static boolean isDateValid(String dateString) {
+        Date enteredDate = getDateForString(dateString);
+        if (enteredDate == null) {
+            return false;
+        }
+        Calendar entered = Calendar.getInstance();
+        entered.setTime(enteredDate);
+        return isValid(entered.get(Calendar.MONTH) + 1, entered.get(Calendar.YEAR));
+    }
+
+    public static SimpleDateFormat getDateFormatForLength(int len) {
+        if (len == 4) {
+            return new SimpleDateFormat("MMyy");
+        } else if (len == 6) {
+            return new SimpleDateFormat("MMyyyy");
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @param dateString "MMyy" or "MMyyyy", separators are ignored
+     * @return the parsed date, or null if the string isn't a date
+     */
+    public static Date getDateForString(String dateString) {
+        String digitsOnly = CardNumbers.digitsOnly(dateString);
+        SimpleDateFormat validDate = getDateFormatForLength(digitsOnly.length());
+        if (validDate != null) {
+            try {
+                validDate.setLenient(false);
+                return validDate.parse(digitsOnly);
+            } catch (ParseException pe) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
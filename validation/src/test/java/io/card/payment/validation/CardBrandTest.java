@@ -0,0 +1,86 @@
+package io.card.payment.validation;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardBrandTest {
+
+    @Test
+    public void fromCardNumber_matchesPrefixes() {
+        assertEquals(CardBrand.VISA, CardBrand.fromCardNumber("4111111111111111"));
+        assertEquals(CardBrand.AMEX, CardBrand.fromCardNumber("378282246310005"));
+        assertEquals(CardBrand.MASTERCARD, CardBrand.fromCardNumber("2221000000000009"));
+        assertEquals(CardBrand.JCB, CardBrand.fromCardNumber("3530111333300000"));
+        assertEquals(CardBrand.DISCOVER, CardBrand.fromCardNumber("6011111111111117"));
+        assertEquals(CardBrand.DINERSCLUB, CardBrand.fromCardNumber("30569309025904"));
+        assertEquals(CardBrand.MAESTRO, CardBrand.fromCardNumber("6304000000000000"));
+    }
+
+    @Test
+    public void fromCardNumber_needsMoreDigits() {
+        assertEquals(CardBrand.INSUFFICIENT_DIGITS, CardBrand.fromCardNumber("3"));
+        assertEquals(CardBrand.INSUFFICIENT_DIGITS, CardBrand.fromCardNumber("5"));
+        assertEquals(CardBrand.AMEX, CardBrand.fromCardNumber("34"));
+        assertEquals(4, CardBrand.INSUFFICIENT_DIGITS.numberLength());
+    }
+
+    @Test
+    public void fromCardNumber_returnsUnknown() {
+        assertEquals(CardBrand.UNKNOWN, CardBrand.fromCardNumber("999999"));
+        assertEquals(CardBrand.UNKNOWN, CardBrand.fromCardNumber(""));
+        assertEquals(CardBrand.UNKNOWN, CardBrand.fromCardNumber(null));
+        assertEquals(CardBrand.UNKNOWN, CardBrand.fromCardNumber("4x11"));
+    }
+
+    @Test
+    public void cardNumbers_checksumAndFormat() {
+        assertTrue(CardNumbers.passesLuhnChecksum("4111111111111111"));
+        assertFalse(CardNumbers.passesLuhnChecksum("4111111111111112"));
+        assertFalse(CardNumbers.passesLuhnChecksum("4111 1111"));
+        assertEquals("4111 1111 1111 1111", CardNumbers.formatString("4111-1111-1111-1111"));
+        assertEquals("3782 822463 10005", CardNumbers.formatString("378282246310005"));
+    }
+
+    @Test
+    public void expiryDates_rangeIsChecked() {
+        assertTrue(ExpiryDates.isValid(3, 2020, 2020, 3));
+        assertFalse(ExpiryDates.isValid(2, 2020, 2020, 3));
+        assertTrue(ExpiryDates.isValid(12, 2035, 2020, 3));
+        assertFalse(ExpiryDates.isValid(1, 2036, 2020, 3));
+        assertFalse(ExpiryDates.isValid(13, 2021, 2020, 3));
+    }
+
+    @Test
+    public void cardBatch_parallelMatchesSequential() {
+        String[] samples = { "4111111111111111", "4111111111111112", "378282246310005", "3",
+                "999999", null, "6011111111111117" };
+        int count = 20000;
+        CharSequence[] numbers = new CharSequence[count];
+        for (int i = 0; i < count; i++) {
+            numbers[i] = samples[i % samples.length];
+        }
+
+        CardBrand[] brands = new CardBrand[count];
+        boolean[] valid = new boolean[count];
+        CardBatch.classify(numbers, brands, valid);
+        assertEquals(CardBrand.VISA, brands[0]);
+        assertTrue(valid[0]);
+        assertFalse(valid[1]);
+        assertTrue(valid[2]);
+        assertFalse(valid[3]);
+        assertEquals(CardBrand.UNKNOWN, brands[5]);
+        assertFalse(valid[5]);
+
+        CardBrand[] parallelBrands = new CardBrand[count];
+        boolean[] parallelValid = new boolean[count];
+        CardBatch.classifyParallel(numbers, parallelBrands, parallelValid, new ForkJoinPool(4));
+        assertArrayEquals(brands, parallelBrands);
+        assertTrue(java.util.Arrays.equals(valid, parallelValid));
+    }
+}